@@ -10,6 +10,8 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -35,25 +37,33 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<Object> setApprovedByOwner(long userId, List<Long> bookingIds, Boolean approved) {
+        return patch("/batch?approved={approved}", userId, Map.of("approved", approved), bookingIds);
+    }
+
     public ResponseEntity<Object> getBookingById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingByUser(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllBookingByUser(long userId, String state, Integer from, Integer size, String cursor) {
+        return getBookingList("", userId, state, from, size, cursor);
+    }
+
+    public ResponseEntity<Object> getAllBookingByOwner(long ownerId, String state, Integer from, Integer size, String cursor) {
+        return getBookingList("/owner", ownerId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> getAllBookingByOwner(long ownerId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    private ResponseEntity<Object> getBookingList(String path, long userId, String state, Integer from, Integer size,
+                                                  String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get(path + "?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
+        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
     }
 }
@@ -7,12 +7,15 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final int MAX_BATCH_SIZE = 1000; // ограничение размера списка при пакетном подтверждении
+
     private final BookingClient bookingClient;
 
     @PostMapping // Создание нового
@@ -28,6 +31,17 @@ public class BookingController {
         return bookingClient.setApprovedByOwner(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch") // Подтверждение или отклонение списка бронирований
+    public ResponseEntity<Object> setApprovedByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @RequestBody List<Long> bookingIds,
+                                                     @RequestParam Boolean approved) {
+        if (bookingIds.isEmpty() || bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Список бронирований должен содержать от 1 до " + MAX_BATCH_SIZE +
+                    " бронирований");
+        }
+        return bookingClient.setApprovedByOwner(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}") // Получение информации о бронировании
     public ResponseEntity<Object> getBookingById(@Positive @RequestHeader("X-Sharer-User-Id") long userId,
                                                  @PathVariable long bookingId) {
@@ -39,8 +53,9 @@ public class BookingController {
                                                       @RequestParam(value = "state", defaultValue = "ALL",
                                                               required = false) String state,
                                                       @Positive @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                      @Positive @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return bookingClient.getAllBookingByUser(userId, state, from, size);
+                                                      @Positive @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                      @RequestParam(required = false) String cursor) {
+        return bookingClient.getAllBookingByUser(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner") // Получение списка бронирований для всех вещей текущего пользователя с учетом статуса и даты
@@ -48,7 +63,8 @@ public class BookingController {
                                                        @RequestParam(value = "state", defaultValue = "ALL",
                                                                required = false) String state,
                                                        @Positive @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                       @Positive @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return bookingClient.getAllBookingByOwner(ownerId, state, from, size);
+                                                       @Positive @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                       @RequestParam(required = false) String cursor) {
+        return bookingClient.getAllBookingByOwner(ownerId, state, from, size, cursor);
     }
 }
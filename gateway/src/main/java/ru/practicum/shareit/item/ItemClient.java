@@ -3,14 +3,30 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @Service
 public class ItemClient extends BaseClient {
 
@@ -30,6 +46,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> createItems(Long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
     public ResponseEntity<Object> updateItemById(Long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -42,8 +62,54 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchAvailableItems(String text) {
-        return get("/search?text=" + text);
+    public ResponseEntity<Object> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> searchAvailableItems(String text, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/search?text={text}");
+        parameters.put("text", text);
+        if (cursor != null) {
+            path.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+        }
+        if (size != null) {
+            path.append("&size={size}");
+            parameters.put("size", size);
+        }
+        return get(path.toString(), null, parameters);
+    }
+
+    // Запрос к серверу выполняется до ответа клиенту, чтобы передать ему статус сервера; тело успешного
+    // ответа копируется в выходной поток по мере получения, без сборки всего списка в памяти
+    public ResponseEntity<StreamingResponseBody> streamAvailableItems(String text) {
+        URI uri = rest.getUriTemplateHandler().expand("/search?text={text}", Map.of("text", text));
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON));
+            response = request.execute();
+            if (HttpStatus.Series.resolve(response.getRawStatusCode()) != HttpStatus.Series.SUCCESSFUL) {
+                try (response) {
+                    byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                    return ResponseEntity.status(response.getRawStatusCode())
+                            .contentType(Objects.requireNonNullElse(response.getHeaders().getContentType(),
+                                    MediaType.APPLICATION_JSON))
+                            .body(outputStream -> outputStream.write(body));
+                }
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка запроса к серверу: " + e.getMessage(), e);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (response) {
+                        StreamUtils.copy(response.getBody(), outputStream);
+                    }
+                });
     }
 
     public ResponseEntity<Object> addCommentToItem(long userId, long itemId, CommentDto commentDto) {
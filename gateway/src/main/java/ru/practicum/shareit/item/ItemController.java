@@ -3,13 +3,18 @@ package ru.practicum.shareit.item;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -17,6 +22,8 @@ import javax.validation.constraints.Positive;
 @Slf4j
 public class ItemController {
 
+    private static final int MAX_BATCH_SIZE = 1000; // ограничение размера списка при пакетном создании вещей
+
     private final ItemClient itemClient;
 
     @PostMapping // Создание новой вещи
@@ -25,6 +32,15 @@ public class ItemController {
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch") // Создание списка вещей, проверка каждой вещи выполняется на сервере
+    public ResponseEntity<Object> createItems(@NonNull @RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestBody List<ItemDto> itemDtos) {
+        if (itemDtos.isEmpty() || itemDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Список вещей должен содержать от 1 до " + MAX_BATCH_SIZE + " вещей");
+        }
+        return itemClient.createItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}") // Обновление информации о вещи
     public ResponseEntity<Object> updateItemById(@NonNull @RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable long itemId,
                                                  @RequestBody ItemDto itemDto) {
@@ -42,9 +58,27 @@ public class ItemController {
         return itemClient.getItemWithBooker(userId, itemId);
     }
 
-    @GetMapping("/search") // Поиск вещи по строке text
-    public ResponseEntity<Object> searchAvailableItems(@RequestParam String text) {
-        return itemClient.searchAvailableItems(text);
+    @GetMapping("/{itemId}/availability") // Календарь вещи: свободные и занятые интервалы на промежутке [from, to)
+    public ResponseEntity<Object> getItemAvailability(
+            @Positive @PathVariable long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода календаря указано после его окончания или равно ему");
+        }
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/search") // Поиск вещи по строке text, при передаче size или cursor - постранично
+    public ResponseEntity<Object> searchAvailableItems(@RequestParam String text,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @Positive @RequestParam(required = false) Integer size) {
+        return itemClient.searchAvailableItems(text, cursor, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE) // Потоковый поиск вещи
+    public ResponseEntity<StreamingResponseBody> streamAvailableItems(@RequestParam String text) {
+        return itemClient.streamAvailableItems(text);
     }
 
     @PostMapping("/{itemId}/comment") // Добавление комментариев
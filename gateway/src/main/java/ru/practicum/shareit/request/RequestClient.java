@@ -11,6 +11,7 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -33,25 +34,29 @@ public class RequestClient extends BaseClient {
     }
 
     @GetMapping // Получение пользователем всех запросов
-    public ResponseEntity<Object> getAllItemRequestOfUser(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllItemRequestOfUser(long userId, Integer from, Integer size, String cursor) {
+        return getItemRequestList("", userId, from, size, cursor);
     }
 
     @GetMapping("/all") // Получение пользователем списка запросов созданного другими пользователями
-    public ResponseEntity<Object> getAllItemRequestOfOtherUsers(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllItemRequestOfOtherUsers(long userId, Integer from, Integer size, String cursor) {
+        return getItemRequestList("/all", userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}") // Получение информации о бронировании
     public ResponseEntity<Object> getItemRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
+
+    private ResponseEntity<Object> getItemRequestList(String path, long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get(path + "?from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
+        return get(path + "?from={from}&size={size}", userId, parameters);
+    }
 }
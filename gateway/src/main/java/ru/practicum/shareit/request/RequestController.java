@@ -27,15 +27,17 @@ public class RequestController {
     @GetMapping // Получение пользователем всех запросов
     public ResponseEntity<Object> getAllItemRequestOfUser(@Positive @RequestHeader("X-Sharer-User-Id") long userId,
                                                           @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                          @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return requestClient.getAllItemRequestOfUser(userId, from, size);
+                                                          @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                          @RequestParam(required = false) String cursor) {
+        return requestClient.getAllItemRequestOfUser(userId, from, size, cursor);
     }
 
     @GetMapping("/all") // Получение пользователем списка запросов созданного другими пользователями
     public ResponseEntity<Object> getAllItemRequestOfOtherUsers(@Positive @RequestHeader("X-Sharer-User-Id") long userId,
                                                                 @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return requestClient.getAllItemRequestOfOtherUsers(userId, from, size);
+                                                                @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                                @RequestParam(required = false) String cursor) {
+        return requestClient.getAllItemRequestOfOtherUsers(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}") // Получение информации о бронировании
@@ -3,12 +3,13 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
 import ru.practicum.shareit.booking.dto.BookingDtoWithItemMapper;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -32,6 +33,13 @@ public class BookingController {
                 .setApprovedByOwner(userId, bookingId, approved)));
     }
 
+    @PatchMapping("/batch") // Подтверждение или отклонение списка бронирований, результат по каждому бронированию
+    public ResponseEntity<List<BookingBatchResultDto>> setApprovedByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                          @RequestBody List<Long> bookingIds,
+                                                                          @RequestParam Boolean approved) {
+        return ResponseEntity.ok().body(bookingService.setApprovedByOwner(userId, bookingIds, approved));
+    }
+
     @GetMapping("/{bookingId}") // Получение информации о бронировании
     public ResponseEntity<BookingDtoWithItem> getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
                                                              @PathVariable long bookingId) {
@@ -44,7 +52,11 @@ public class BookingController {
                                                                         @RequestParam(value = "state", defaultValue = "ALL",
                                                                                 required = false) String state,
                                                                         @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                        @RequestParam(required = false, defaultValue = "20") Integer size) {
+                                                                        @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                                        @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return toPageResponse(bookingService.getBookingPageByUser(userId, state, cursor, size));
+        }
         return ResponseEntity.ok().body(bookingService.getAllBookingByUser(from, size, userId, state));
     }
 
@@ -53,9 +65,20 @@ public class BookingController {
                                                                          @RequestParam(value = "state", defaultValue = "ALL",
                                                                                  required = false) String state,
                                                                          @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                         @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return ResponseEntity.ok().body(bookingService.getAllBookingByOwner(from, size, ownerId, state).stream()
-                .map(bookingDtoWithItemMapper::toBookingDtoWithItem)
-                .collect(Collectors.toList()));
+                                                                         @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                                         @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return toPageResponse(bookingService.getBookingPageByOwner(ownerId, state, cursor, size));
+        }
+        return ResponseEntity.ok().body(bookingService.getAllBookingByOwner(from, size, ownerId, state));
+    }
+
+    // Страница по курсору (пустой cursor - первая страница), курсор следующей страницы передается в заголовке
+    private ResponseEntity<List<BookingDtoWithItem>> toPageResponse(CursorPage<BookingDtoWithItem> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
     }
 }
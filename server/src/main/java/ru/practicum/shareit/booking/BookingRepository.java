@@ -1,66 +1,99 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingLastNextProjection;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusProjection;
+import ru.practicum.shareit.booking.dto.BookingPeriodProjection;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    // ---Для обработки getAllBookingByUser
-    // Получение списка всех бронирований текущего пользователя
-
-    // Возвращает список всех бронирований пользователя отсортированных по времени
-    List<Booking> findBookingsByBooker_IdOrderByStartDesc(long userId, PageRequest pageRequest);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 " +
-            "order by b.start Asc")
-    List<Booking> findAllBookingsForBooker_IdWithStartAndEnd(Long userId, LocalDateTime now, LocalDateTime now1, PageRequest pageRequest);
-
-    List<Booking> findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(long id, LocalDateTime now, PageRequest pageRequest);
-
-    List<Booking> findAllByBooker_IdAndStartIsAfterOrderByStartDesc(long id, LocalDateTime now, PageRequest pageRequest);
-
-    List<Booking> findAllByBooker_IdAndStatusOrderByStartDesc(long id, Status status, PageRequest pageRequest);
-
-
-    // ---Для обработки getAllBookingByOwner
-    // Получаем, список бронирований отсортированных по времени
-    List<Booking> findAllByItem_OwnerOrderByStartDesc(User user, PageRequest pageRequest);
-
-    // Возвращает список бронирования вещей которые имеются на данный момент время отсортированных по времени
-    List<Booking> findAllByItem_OwnerAndStartBeforeAndEndAfterOrderByStartDesc(User user, LocalDateTime nowDateTime,
-                                                                               LocalDateTime nowDateTime1, PageRequest pageRequest);
-
-    // Возвращает список завершенных бронирований до указанной даты отсортированных по времени
-    @Query("select b " +
-            "from Booking b " +
-            "where b.item.owner = ?1 and b.end < ?2 " +
-            "order by b.start Desc")
-    List<Booking> findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(User user, LocalDateTime nowDateTime, PageRequest pageRequest);
-
-    // Получение списка бронирований после определенной даты
-    List<Booking> findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(User user, LocalDateTime now, PageRequest pageRequest);
-
-    // Возвращает список бронирований пользователя определенного статуса
-    List<Booking> findAllByItem_OwnerAndStatusOrderByStartDesc(User user, Status status, PageRequest pageRequest);
-
-    // Возвращает список вещей пользователя
-    @Query("select b " +
-            "from Booking b " +
-            "where b.item = ?1 " +
-            "order by b.start desc")
-    List<Booking> findAllByItemOrderByStartDesc(Item item);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    // Бронирование с вещью: для проверки владельца и отображения бронирования
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long bookingId);
+
+    // Владельцы вещей и статусы набора бронирований одним запросом
+    @Query("select b.bookingId as id, i.owner.id as ownerId, b.status as status, i.itemId as itemId, " +
+            "b.start as startTime, b.end as endTime " +
+            "from Booking b join b.item i " +
+            "where b.bookingId in :bookingIds")
+    List<BookingOwnerStatusProjection> findOwnerAndStatusByIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Есть ли у вещи бронирование с указанным статусом, пересекающееся с периодом [start, end)
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.itemId = :itemId and b.status = :status " +
+            "and b.start < :end and b.end > :start and b.bookingId <> :excludedId")
+    boolean existsOverlapping(@Param("itemId") long itemId, @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end, @Param("status") Status status,
+                              @Param("excludedId") long excludedId);
+
+    // Бронирования вещей с указанным статусом, пересекающиеся с периодом [start, end)
+    @Query("select b.bookingId as id, i.owner.id as ownerId, b.status as status, i.itemId as itemId, " +
+            "b.start as startTime, b.end as endTime " +
+            "from Booking b join b.item i " +
+            "where i.itemId in :itemIds and b.status = :status and b.start < :end and b.end > :start")
+    List<BookingOwnerStatusProjection> findOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                                       @Param("start") LocalDateTime start,
+                                                       @Param("end") LocalDateTime end,
+                                                       @Param("status") Status status);
+
+    // Периоды бронирований вещи с указанным статусом по возрастанию начала
+    @Query("select b.start as startTime, b.end as endTime from Booking b " +
+            "where b.item.itemId = :itemId and b.status = :status " +
+            "order by b.start")
+    List<BookingPeriodProjection> findPeriodsByItem(@Param("itemId") long itemId, @Param("status") Status status);
+
+    // Идентификаторы бронирований с указанным статусом, начавшихся до момента now, от самых старых
+    @Query("select b.bookingId from Booking b " +
+            "where b.status = :status and b.start < :now " +
+            "order by b.start")
+    List<Long> findIdsByStatusAndStartBefore(@Param("status") Status status, @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    // Перевод набора бронирований из статуса status в newStatus; бронирования, статус которых уже изменился,
+    // не затрагиваются, а версия увеличивается, чтобы одновременное изменение завершилось конфликтом
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :newStatus, b.version = b.version + 1 " +
+            "where b.bookingId in :bookingIds and b.status = :status")
+    int updateStatusByIdsAndStatus(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") Status status,
+                                   @Param("newStatus") Status newStatus);
+
+    // Возвращает последнее начавшееся бронирование для каждой вещи из набора (по одной строке на вещь)
+    @Query(value = "select b.id as \"id\", b.booker_id as \"bookerId\", b.item_id as \"itemId\" " +
+            "from bookings b " +
+            "where b.id in (select (select lb.id from bookings lb " +
+            "where lb.item_id = i.id and lb.start_date_time < :now and lb.status in (:statuses) " +
+            "order by lb.start_date_time desc, lb.id desc limit 1) " +
+            "from items i where i.id in (:itemIds))", nativeQuery = true)
+    List<BookingLastNextProjection> findLastBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                                            @Param("now") LocalDateTime now,
+                                                            @Param("statuses") Collection<String> statuses);
+
+    // Возвращает ближайшее будущее бронирование для каждой вещи из набора (по одной строке на вещь)
+    @Query(value = "select b.id as \"id\", b.booker_id as \"bookerId\", b.item_id as \"itemId\" " +
+            "from bookings b " +
+            "where b.id in (select (select nb.id from bookings nb " +
+            "where nb.item_id = i.id and nb.start_date_time > :now and nb.status in (:statuses) " +
+            "order by nb.start_date_time, nb.id limit 1) " +
+            "from items i where i.id in (:itemIds))", nativeQuery = true)
+    List<BookingLastNextProjection> findNextBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                                            @Param("now") LocalDateTime now,
+                                                            @Param("statuses") Collection<String> statuses);
 
     @Query("select b " +
             "from Booking b " +
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    // Возвращает страницу бронирований арендатора bookerId или владельца вещей ownerId с учетом статуса
+    // сразу в виде DTO, отсортированных по убыванию даты начала и идентификатора
+    List<BookingDtoWithItem> findBookingDtos(Long bookerId, Long ownerId, State state, LocalDateTime now,
+                                             Pageable pageable);
+
+    // Возвращает страницу бронирований арендатора bookerId или владельца вещей ownerId с учетом статуса
+    // сразу в виде DTO, отсортированных по убыванию даты начала и идентификатора, начиная после позиции
+    // (afterStart, afterId)
+    List<BookingDtoWithItem> findBookingDtosAfter(Long bookerId, Long ownerId, State state, LocalDateTime now,
+                                                  LocalDateTime afterStart, Long afterId, int size);
+}
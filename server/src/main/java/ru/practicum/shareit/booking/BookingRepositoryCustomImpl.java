@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoWithItem> findBookingDtos(Long bookerId, Long ownerId, State state, LocalDateTime now,
+                                                    Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoWithItem> query = cb.createQuery(BookingDtoWithItem.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+
+        List<Predicate> predicates = buildPredicates(cb, booking, item, bookerId, ownerId, state, now);
+        query.select(selectDto(cb, booking, item))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(booking.get("bookingId")));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<BookingDtoWithItem> findBookingDtosAfter(Long bookerId, Long ownerId, State state, LocalDateTime now,
+                                                         LocalDateTime afterStart, Long afterId, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoWithItem> query = cb.createQuery(BookingDtoWithItem.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("bookingId");
+
+        List<Predicate> predicates = buildPredicates(cb, booking, item, bookerId, ownerId, state, now);
+        // условие продолжения с позиции курсора вместо пропуска строк через offset
+        if (afterStart != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, afterStart),
+                    cb.and(cb.equal(start, afterStart), cb.lessThan(id, afterId))));
+        }
+
+        query.select(selectDto(cb, booking, item))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    // Выборка только полей DTO без загрузки сущностей
+    private CompoundSelection<BookingDtoWithItem> selectDto(CriteriaBuilder cb, Root<Booking> booking,
+                                                          Join<Booking, Item> item) {
+        return cb.construct(BookingDtoWithItem.class,
+                booking.get("bookingId"), item.get("itemId"), item.get("name"),
+                booking.get("booker").get("id"), booking.get("start"), booking.get("end"), booking.get("status"));
+    }
+
+    // Условия отбора по арендатору или владельцу вещей и по состоянию бронирования относительно момента now
+    private List<Predicate> buildPredicates(CriteriaBuilder cb, Root<Booking> booking, Path<Item> item,
+                                            Long bookerId, Long ownerId, State state, LocalDateTime now) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (bookerId != null) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), bookerId));
+        }
+        if (ownerId != null) {
+            predicates.add(cb.equal(item.get("owner").get("id"), ownerId));
+        }
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), Status.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), Status.REJECTED));
+                break;
+            default:
+                break;
+        }
+        return predicates;
+    }
+}
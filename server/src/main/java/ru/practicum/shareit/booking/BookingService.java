@@ -1,12 +1,17 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
+import ru.practicum.shareit.booking.dto.BookingLastNextProjection;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemOccupancy;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
@@ -14,13 +19,25 @@ public interface BookingService {
 
     Booking setApprovedByOwner(long userId, long bookingId, Boolean approved);
 
+    List<BookingBatchResultDto> setApprovedByOwner(long userId, List<Long> bookingIds, Boolean approved);
+
     Booking getBookingById(long userId, long bookingId);
 
     List<BookingDtoWithItem> getAllBookingByUser(int from, int size, long userId, String state);
 
-    List<Booking> getAllBookingByOwner(int from, int size, long ownerId, String state);
+    List<BookingDtoWithItem> getAllBookingByOwner(int from, int size, long ownerId, String state);
+
+    CursorPage<BookingDtoWithItem> getBookingPageByUser(long userId, String state, String cursor, int size);
+
+    CursorPage<BookingDtoWithItem> getBookingPageByOwner(long ownerId, String state, String cursor, int size);
 
-    List<Booking> getAllBookingByUser(Item item);
+    ItemOccupancy getItemOccupancy(long itemId);
+
+    List<BookingLastNextProjection> getLastBookingsOfItems(Collection<Long> itemIds, LocalDateTime now);
+
+    List<BookingLastNextProjection> getNextBookingsOfItems(Collection<Long> itemIds, LocalDateTime now);
 
     List<Booking> getAllBookingForItemByUser(Item item, User user, LocalDateTime now);
+
+    int expireWaitingBookings(LocalDateTime now, int limit);
 }
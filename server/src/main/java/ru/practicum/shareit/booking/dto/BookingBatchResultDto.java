@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Status;
+
+// Результат изменения статуса одного бронирования из списка: новый статус либо причина отказа
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class BookingBatchResultDto {
+    private Long bookingId;
+    private Status status;
+    private String error;
+
+    public BookingBatchResultDto(Long bookingId, Status status, String error) {
+        this.bookingId = bookingId;
+        this.status = status;
+        this.error = error;
+    }
+}
@@ -28,4 +28,10 @@ public class BookingDtoWithItem {
         this.end = end;
         this.status = status;
     }
-}
\ No newline at end of file
+
+    // Конструктор для выборки из BookingRepository без загрузки сущностей
+    public BookingDtoWithItem(Long id, Long itemId, String itemName, Long bookerId, LocalDateTime start,
+                              LocalDateTime end, Status status) {
+        this(id, new ItemDtoForBooking(itemId, itemName), new UserDtoForBooking(bookerId), start, end, status);
+    }
+}
@@ -9,4 +9,6 @@ public interface BookingLastNextDtoMapper {
     @Mapping(source = "bookingId", target = "id")
     @Mapping(source = "booker.id", target = "bookerId")
     BookingLastNextDto toBookingLastNextDto(Booking booking);
+
+    BookingLastNextDto toBookingLastNextDto(BookingLastNextProjection booking);
 }
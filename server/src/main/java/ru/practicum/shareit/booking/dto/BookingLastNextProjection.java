@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+// Проекция предыдущего/следующего бронирования вещи, выбираемая без загрузки сущностей
+public interface BookingLastNextProjection {
+    long getId();
+
+    long getBookerId();
+
+    long getItemId();
+}
@@ -15,5 +15,6 @@ public interface BookingMapper {
     @Mapping(source = "id", target = "bookingId")
     @Mapping(source = "bookerId", target = "booker.id")
     @Mapping(source = "itemId", target = "item.itemId")
+    @Mapping(target = "version", ignore = true)
     Booking toBooking(BookingDto bookingDto);
 }
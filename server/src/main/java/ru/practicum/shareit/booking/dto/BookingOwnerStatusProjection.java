@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+// Проекция бронирования для проверки владельца вещи, статуса и пересечения периодов без загрузки сущностей
+public interface BookingOwnerStatusProjection extends BookingPeriodProjection {
+    long getId();
+
+    long getOwnerId();
+
+    Status getStatus();
+
+    long getItemId();
+}
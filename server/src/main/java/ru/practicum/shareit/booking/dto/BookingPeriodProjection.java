@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+// Период бронирования [start, end), выбираемый без загрузки сущностей
+public interface BookingPeriodProjection {
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import ru.practicum.shareit.booking.BookingService;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(BookingExpiryProperties.class)
+@ConditionalOnProperty(prefix = "shareit.booking-expiry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryConfig {
+
+    @Bean
+    public BookingExpiryScheduler bookingExpiryScheduler(BookingService bookingService,
+                                                         BookingExpiryProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new BookingExpiryScheduler(bookingService, properties, Clock.systemDefaultZone(), meterRegistry);
+    }
+
+    // Следующий запуск начинается через interval после окончания предыдущего, поэтому запуски не накладываются;
+    // ошибка запуска записывается в лог планировщиком и не отменяет следующие запуски
+    @Bean
+    public SchedulingConfigurer bookingExpiryTask(BookingExpiryScheduler scheduler, BookingExpiryProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(scheduler::expireStaleBookings,
+                properties.getInterval().toMillis());
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking-expiry")
+public class BookingExpiryProperties {
+    private boolean enabled = true; // отмена неподтвержденных бронирований, срок которых уже начался
+    private Duration interval = Duration.ofMinutes(1); // пауза между запусками
+    private int batchSize = 500; // бронирований в одной транзакции
+    private int maxBatchesPerRun = 20; // ограничение работы одного запуска, остаток обработает следующий
+}
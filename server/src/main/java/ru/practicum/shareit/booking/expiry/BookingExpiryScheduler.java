@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.BookingService;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+// Периодическая отмена бронирований, оставшихся в статусе WAITING после начала срока аренды: каждая пачка
+// обрабатывается в своей транзакции, число пачек за запуск ограничено
+@Slf4j
+public class BookingExpiryScheduler {
+
+    private final BookingService bookingService;
+    private final BookingExpiryProperties properties;
+    private final Clock clock;
+    private final Counter expiredCounter;
+    private final DistributionSummary runSummary;
+    private final Timer runTimer;
+
+    public BookingExpiryScheduler(BookingService bookingService, BookingExpiryProperties properties, Clock clock,
+                                  MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.properties = properties;
+        this.clock = clock;
+        this.expiredCounter = Counter.builder("shareit.booking.expiry.expired")
+                .description("Количество отмененных неподтвержденных бронирований")
+                .register(meterRegistry);
+        this.runSummary = DistributionSummary.builder("shareit.booking.expiry.run.rows")
+                .description("Количество отмененных бронирований за один запуск")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.booking.expiry.run.time")
+                .description("Длительность одного запуска отмены бронирований")
+                .register(meterRegistry);
+    }
+
+    // Один запуск: пачки обрабатываются, пока находятся бронирования и не исчерпан лимит пачек
+    public int expireStaleBookings() {
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            int total = 0;
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int expired = bookingService.expireWaitingBookings(now, properties.getBatchSize());
+                total += expired;
+                if (expired < properties.getBatchSize()) {
+                    break;
+                }
+            }
+            expiredCounter.increment(total);
+            runSummary.record(total);
+            if (total > 0) {
+                log.info("Отмена неподтвержденных бронирований завершена: {} бронирований", total);
+            }
+            return total;
+        });
+    }
+}
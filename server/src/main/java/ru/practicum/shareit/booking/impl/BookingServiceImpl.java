@@ -3,54 +3,101 @@ package ru.practicum.shareit.booking.impl;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
-import ru.practicum.shareit.booking.dto.BookingDtoWithItemMapper;
+import ru.practicum.shareit.booking.dto.BookingLastNextProjection;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusProjection;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemOccupancy;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.replica.ReplicaRoutingProperties;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @NoArgsConstructor(force = true)
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    public static final String OCCUPANCY_CACHE = "item-occupancy"; // кэш занятости вещей по id вещи
+    private static final int OCCUPANCY_STRIPES = 256; // число счетчиков поколений занятости
+    // статусы бронирований, которые учитываются как предыдущие/следующие бронирования вещи
+    private static final List<String> LAST_NEXT_STATUSES = List.of(Status.APPROVED.name(), Status.WAITING.name());
+    private static final String OVERLAPPING_MESSAGE = "Вещь уже забронирована на указанное время";
+    private static final String NOT_WAITING_MESSAGE = "Изменить статус можно только у бронирования, " +
+            "ожидающего подтверждения";
+    private static final String CONCURRENT_UPDATE_MESSAGE = "Статус бронирования уже изменен другим запросом, " +
+            "обновите данные и повторите попытку";
+
     private final ItemService itemService;
     private final UserService userService;
     private final BookingRepository bookingRepository;
-    private final BookingDtoWithItemMapper bookingDtoWithItemMapper;
     private final BookingMapper bookingMapper;
+    private final CacheManager cacheManager;
+    private final ItemOccupancyLoader occupancyLoader;
+    // поколение занятости вещей (по остатку от id): увеличивается при каждом зафиксированном изменении статуса
+    private final AtomicLongArray occupancyGenerations = new AtomicLongArray(OCCUPANCY_STRIPES);
+    // время последнего изменения занятости вещей (System.nanoTime) по тем же счетчикам
+    private final AtomicLongArray occupancyChangedAt = new AtomicLongArray(OCCUPANCY_STRIPES);
+    // допустимое отставание реплики в наносекундах; 0, если чтения не уходят на реплику
+    private long replicaMaxLagNanos;
 
     @Autowired
     @Lazy
     public BookingServiceImpl(ItemService itemService, UserService userService, BookingRepository bookingRepository,
-                              BookingDtoWithItemMapper bookingDtoWithItemMapper, BookingMapper bookingMapper) {
+                              BookingMapper bookingMapper, CacheManager cacheManager,
+                              ItemOccupancyLoader occupancyLoader) {
         this.itemService = itemService;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
-        this.bookingDtoWithItemMapper = bookingDtoWithItemMapper;
         this.bookingMapper = bookingMapper;
+        this.cacheManager = cacheManager;
+        this.occupancyLoader = occupancyLoader;
+    }
+
+    // Настройки реплики есть, только если транзакции только для чтения направляются на нее
+    @Autowired(required = false)
+    public void setReplicaRoutingProperties(ReplicaRoutingProperties replicaRoutingProperties) {
+        this.replicaMaxLagNanos = replicaRoutingProperties.getMaxLag().toNanos();
     }
 
     // Добавление нового бронирования
+    @Transactional
     public Booking createBooking(long bookerId, BookingDto bookingDto) {
         bookingDto.setBookerId(bookerId);
         Booking booking = bookingMapper.toBooking(bookingDto);
@@ -62,6 +109,7 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemService.getItemsById(booking.getItem().getItemId());
         if (booking.getBooker().getId() != item.getOwner().getId()) {
             if (item.getIsAvailable()) {
+                checkNotOverlapping(item.getItemId(), booking.getStart(), booking.getEnd(), 0);
                 booking.setBooker(user);
                 booking.setItem(item);
                 booking.setStatus(Status.WAITING);
@@ -78,34 +126,47 @@ public class BookingServiceImpl implements BookingService {
     }
 
     // Подтверждение или отклонении бронирования
+    @Transactional
     public Booking setApprovedByOwner(long userId, long bookingId, Boolean approved) {
         // проверка пользователя бронирования
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         // проверка наличия бронирования
         Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
         if (bookingOpt.isPresent()) {
             // проверка на то, что пользователь является владельцем вещи
             if (bookingOpt.get().getItem().getOwner().getId() == userId) {
-                // проверка статуса бронирования
+                // проверка статуса бронирования: подтвердить или отклонить можно только ожидающее бронирование
                 if (approved) {
                     if (bookingOpt.get().getStatus().equals(Status.APPROVED)) {
                         log.info("Бронирование уже подтверждено, при необходимости можно отменить его");
                         throw new ValidationException("Бронирование уже подтверждено, при необходимости можно отменить его");
+                    } else if (!bookingOpt.get().getStatus().equals(Status.WAITING)) {
+                        log.info(NOT_WAITING_MESSAGE);
+                        throw new ValidationException(NOT_WAITING_MESSAGE);
                     } else {
                         Booking booking = bookingOpt.get();
+                        // подтверждения бронирований одной вещи выполняются по очереди
+                        itemService.lockItems(List.of(booking.getItem().getItemId()));
+                        checkNotOverlapping(booking.getItem().getItemId(), booking.getStart(), booking.getEnd(),
+                                booking.getBookingId());
                         booking.setStatus(Status.APPROVED);
+                        evictOccupancy(List.of(booking.getItem().getItemId()));
                         log.info("Бронирование успешно подтверждено одобрено");
-                        return bookingRepository.save(booking);
+                        return saveStatus(booking);
                     }
                 } else {
                     if (bookingOpt.get().getStatus().equals(Status.REJECTED)) {
                         log.info("Бронирование отменено, изменение статуса повторно не возможно");
                         throw new ValidationException("Бронирование отменено, изменение статуса повторно не возможно");
+                    } else if (!bookingOpt.get().getStatus().equals(Status.WAITING)) {
+                        log.info(NOT_WAITING_MESSAGE);
+                        throw new ValidationException(NOT_WAITING_MESSAGE);
                     } else {
                         Booking booking = bookingOpt.get();
                         booking.setStatus(Status.REJECTED);
+                        evictOccupancy(List.of(booking.getItem().getItemId()));
                         log.info("Бронирование успешно отменено");
-                        return bookingRepository.save(booking);
+                        return saveStatus(booking);
                     }
                 }
             } else {
@@ -119,9 +180,158 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    // Сохранение нового статуса бронирования сразу, а не при фиксации транзакции: если бронирование
+    // успели изменить параллельно, версия не совпадет и вместо перезаписи вернется конфликт
+    private Booking saveStatus(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.info("Статус бронирования Id = {} был изменен параллельным запросом", booking.getBookingId());
+            throw new ConflictException(CONCURRENT_UPDATE_MESSAGE);
+        }
+    }
+
+    // Подтверждение или отклонение списка бронирований: владелец и статусы проверяются одним запросом,
+    // статус подходящих (ожидающих подтверждения) бронирований меняется одним обновлением
+    @Transactional
+    public List<BookingBatchResultDto> setApprovedByOwner(long userId, List<Long> bookingIds, Boolean approved) {
+        userService.checkUserExists(userId);
+        Status newStatus = approved ? Status.APPROVED : Status.REJECTED;
+        Set<Long> uniqueIds = new LinkedHashSet<>(bookingIds);
+        Map<Long, BookingOwnerStatusProjection> bookings = bookingRepository.findOwnerAndStatusByIds(uniqueIds)
+                .stream()
+                .collect(Collectors.toMap(BookingOwnerStatusProjection::getId, Function.identity()));
+
+        Map<Long, List<BookingOwnerStatusProjection>> approvedByItem = approved
+                ? lockItemsAndGetApproved(userId, bookings.values())
+                : new HashMap<>();
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Long> idsToUpdate = new ArrayList<>();
+        Set<Long> itemIdsToEvict = new HashSet<>();
+        for (Long bookingId : uniqueIds) {
+            BookingOwnerStatusProjection booking = bookings.get(bookingId);
+            if (booking == null) {
+                results.add(new BookingBatchResultDto(bookingId, null, "Бронирование не найдено"));
+            } else if (booking.getOwnerId() != userId) {
+                results.add(new BookingBatchResultDto(bookingId, booking.getStatus(),
+                        "Забронированная вещь не принадлежит пользователю, желающему внести изменения"));
+            } else if (booking.getStatus() == newStatus) {
+                results.add(new BookingBatchResultDto(bookingId, booking.getStatus(), approved
+                        ? "Бронирование уже подтверждено, при необходимости можно отменить его"
+                        : "Бронирование отменено, изменение статуса повторно не возможно"));
+            } else if (booking.getStatus() != Status.WAITING) {
+                results.add(new BookingBatchResultDto(bookingId, booking.getStatus(), NOT_WAITING_MESSAGE));
+            } else if (approved && overlapsAny(booking, approvedByItem.get(booking.getItemId()))) {
+                results.add(new BookingBatchResultDto(bookingId, booking.getStatus(), OVERLAPPING_MESSAGE));
+            } else {
+                results.add(new BookingBatchResultDto(bookingId, newStatus, null));
+                idsToUpdate.add(bookingId);
+                itemIdsToEvict.add(booking.getItemId());
+                if (approved) {
+                    // подтверждаемые в этом же списке бронирования тоже не должны пересекаться
+                    approvedByItem.computeIfAbsent(booking.getItemId(), itemId -> new ArrayList<>()).add(booking);
+                }
+            }
+        }
+        if (!idsToUpdate.isEmpty()) {
+            // статус мог измениться после проверки: тогда часть бронирований не обновится, и весь список
+            // откатывается с конфликтом, как и при изменении отдельного бронирования
+            int updated = bookingRepository.updateStatusByIdsAndStatus(idsToUpdate, Status.WAITING, newStatus);
+            if (updated != idsToUpdate.size()) {
+                log.info("Статус {} из {} бронирований был изменен параллельным запросом",
+                        idsToUpdate.size() - updated, idsToUpdate.size());
+                throw new ConflictException(CONCURRENT_UPDATE_MESSAGE);
+            }
+            evictOccupancy(itemIdsToEvict);
+            log.info("Статус {} установлен для {} бронирований из {}", newStatus, updated, uniqueIds.size());
+        }
+        return results;
+    }
+
+    // Блокировка вещей, бронирования которых будут подтверждены, и загрузка их подтвержденных бронирований
+    // в общем периоде подтверждаемых бронирований
+    private Map<Long, List<BookingOwnerStatusProjection>> lockItemsAndGetApproved(
+            long ownerId, Collection<BookingOwnerStatusProjection> bookings) {
+        List<BookingOwnerStatusProjection> toApprove = bookings.stream()
+                .filter(booking -> booking.getOwnerId() == ownerId && booking.getStatus() == Status.WAITING)
+                .collect(Collectors.toList());
+        Map<Long, List<BookingOwnerStatusProjection>> approvedByItem = new HashMap<>();
+        if (toApprove.isEmpty()) {
+            return approvedByItem;
+        }
+        Set<Long> itemIds = toApprove.stream()
+                .map(BookingOwnerStatusProjection::getItemId)
+                .collect(Collectors.toSet());
+        itemService.lockItems(itemIds);
+        LocalDateTime start = toApprove.stream()
+                .map(BookingOwnerStatusProjection::getStartTime)
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+        LocalDateTime end = toApprove.stream()
+                .map(BookingOwnerStatusProjection::getEndTime)
+                .max(LocalDateTime::compareTo)
+                .orElseThrow();
+        for (BookingOwnerStatusProjection booking : bookingRepository.findOverlapping(itemIds, start, end,
+                Status.APPROVED)) {
+            approvedByItem.computeIfAbsent(booking.getItemId(), itemId -> new ArrayList<>()).add(booking);
+        }
+        return approvedByItem;
+    }
+
+    private static boolean overlapsAny(BookingOwnerStatusProjection booking,
+                                       List<BookingOwnerStatusProjection> others) {
+        return others != null && others.stream()
+                .anyMatch(other -> other.getId() != booking.getId()
+                        && other.getStartTime().isBefore(booking.getEndTime())
+                        && other.getEndTime().isAfter(booking.getStartTime()));
+    }
+
+    // Сброс занятости вещей сразу и повторно после фиксации транзакции: до фиксации другие запросы еще
+    // читают прежние бронирования и могут снова положить их в кэш
+    private void evictOccupancy(Collection<Long> itemIds) {
+        Cache occupancy = cacheManager.getCache(OCCUPANCY_CACHE);
+        if (occupancy == null) {
+            return;
+        }
+        itemIds.forEach(occupancy::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateOccupancy(occupancy, itemIds);
+                }
+            });
+        } else {
+            invalidateOccupancy(occupancy, itemIds);
+        }
+    }
+
+    // Поколение увеличивается до сброса: чтение, начатое раньше, увидит новое поколение и не оставит
+    // в кэше занятость, загруженную до изменения (см. getItemOccupancy)
+    private void invalidateOccupancy(Cache occupancy, Collection<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            occupancyChangedAt.set(occupancyStripe(itemId), System.nanoTime());
+            occupancyGenerations.incrementAndGet(occupancyStripe(itemId));
+            occupancy.evict(itemId);
+        }
+    }
+
+    private static int occupancyStripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) OCCUPANCY_STRIPES);
+    }
+
+    // Проверка того, что период [start, end) не пересекается с подтвержденными бронированиями вещи
+    private void checkNotOverlapping(long itemId, LocalDateTime start, LocalDateTime end, long excludedBookingId) {
+        if (bookingRepository.existsOverlapping(itemId, start, end, Status.APPROVED, excludedBookingId)) {
+            log.info("Вещь с Id = {} уже забронирована на период с {} по {}", itemId, start, end);
+            throw new ConflictException(OVERLAPPING_MESSAGE);
+        }
+    }
+
     // Получение информации о бронировании
+    @Transactional(readOnly = true)
     public Booking getBookingById(long userId, long bookingId) {
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         Optional<Booking> booking = bookingRepository.findById(bookingId);
         if (booking.isPresent()) {
             if ((booking.get().getBooker().getId() == userId) || (booking.get().getItem().getOwner().getId() == userId)) {
@@ -136,144 +346,150 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    @Transactional
-    // Получение списка всех бронирований текущего пользователя
+    // Получение списка всех бронирований текущего пользователя (сразу в виде DTO, без загрузки сущностей)
+    @Transactional(readOnly = true)
     public List<BookingDtoWithItem> getAllBookingByUser(int from, int size, long userId, String state) {
-        // проверяем отрицательный ли параметр
-        if (from < 0) {
-            throw new ValidationException("Значение не может быть отрицательным");
-        }
-        PageRequest pageRequest = PageRequest.of(from / size, size);
+        PageRequest pageRequest = toPageRequest(from, size);
         // Проверка параметра state
-        State stateOfBooking;
-        if (state.isBlank()) {
-            stateOfBooking = State.ALL;
-        } else {
-            try {
-                stateOfBooking = State.valueOf(state.toUpperCase());
-            } catch (RuntimeException ex) {
-                log.info("Введенный статус не существует");
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-            }
+        State stateOfBooking = parseState(state);
+        userService.checkUserExists(userId);
+        return bookingRepository.findBookingDtos(userId, null, stateOfBooking, LocalDateTime.now(), pageRequest);
+    }
+
+    // Получение списка бронирований для всех вещей текущего пользователя (сразу в виде DTO, без загрузки сущностей)
+    @Transactional(readOnly = true)
+    public List<BookingDtoWithItem> getAllBookingByOwner(int from, int size, long ownerId, String state) {
+        PageRequest pageRequest = toPageRequest(from, size);
+        // Проверка параметра state
+        State stateOfBooking = parseState(state);
+        userService.checkUserExists(ownerId);
+        return bookingRepository.findBookingDtos(null, ownerId, stateOfBooking, LocalDateTime.now(), pageRequest);
+    }
+
+    // Получение страницы бронирований текущего пользователя, начиная с позиции курсора (сразу в виде DTO)
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDtoWithItem> getBookingPageByUser(long userId, String state, String cursor, int size) {
+        State stateOfBooking = parseState(state);
+        userService.checkUserExists(userId);
+        return getBookingPage(userId, null, stateOfBooking, cursor, size);
+    }
+
+    // Получение страницы бронирований для всех вещей текущего пользователя, начиная с позиции курсора
+    // (сразу в виде DTO)
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDtoWithItem> getBookingPageByOwner(long ownerId, String state, String cursor, int size) {
+        State stateOfBooking = parseState(state);
+        userService.checkUserExists(ownerId);
+        return getBookingPage(null, ownerId, stateOfBooking, cursor, size);
+    }
+
+    // Занятость вещи подтвержденными бронированиями; результат кэшируется и сбрасывается при изменении статуса
+    // бронирований вещи, поэтому история бронирований читается из базы только при промахе кэша.
+    // Кэш проверяется вне транзакции, промах загружается транзакцией только для чтения (ItemOccupancyLoader)
+    public ItemOccupancy getItemOccupancy(long itemId) {
+        Cache cache = cacheManager.getCache(OCCUPANCY_CACHE);
+        ItemOccupancy cached = cache == null ? null : cache.get(itemId, ItemOccupancy.class);
+        if (cached != null) {
+            return cached;
         }
-        List<Booking> listOfBooking;
-        List<BookingDtoWithItem> listOfBookingDto = new ArrayList<>();
-        User user = userService.getUserById(userId);
-        switch (stateOfBooking) {
-            case ALL: {
-                listOfBooking = bookingRepository.findBookingsByBooker_IdOrderByStartDesc(user.getId(), pageRequest);
-                listOfBookingDto = listOfBooking.stream()
-                        .map(bookingDtoWithItemMapper::toBookingDtoWithItem)
-                        .collect(Collectors.toList());
-                break;
-            }
-            case CURRENT: {
-                listOfBooking = bookingRepository.findAllBookingsForBooker_IdWithStartAndEnd(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                listOfBookingDto = listOfBooking.stream()
-                        .map(bookingDtoWithItemMapper::toBookingDtoWithItemNotTime)
-                        .collect(Collectors.toList());
-                break;
-            }
-            case PAST: {
-                listOfBooking = bookingRepository.findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(
-                        user.getId(), LocalDateTime.now(), pageRequest);
-                listOfBookingDto = listOfBooking.stream()
-                        .map(bookingDtoWithItemMapper::toBookingDtoWithItem)
-                        .collect(Collectors.toList());
-                break;
-            }
-            case FUTURE: {
-                listOfBooking = bookingRepository.findAllByBooker_IdAndStartIsAfterOrderByStartDesc(
-                        user.getId(), LocalDateTime.now(), pageRequest);
-                listOfBookingDto = listOfBooking.stream()
-                        .map(bookingDtoWithItemMapper::toBookingDtoWithItem)
-                        .collect(Collectors.toList());
-                break;
-            }
-            case WAITING: {
-                listOfBooking = bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(
-                        user.getId(), Status.WAITING, pageRequest);
-                listOfBookingDto = listOfBooking.stream()
-                        .map(bookingDtoWithItemMapper::toBookingDtoWithItem)
-                        .collect(Collectors.toList());
-                break;
-            }
-            case REJECTED: {
-                listOfBooking = bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(
-                        user.getId(), Status.REJECTED, pageRequest);
-                listOfBookingDto = listOfBooking.stream()
-                        .map(bookingDtoWithItemMapper::toBookingDtoWithItem)
-                        .collect(Collectors.toList());
-                break;
+        int stripe = occupancyStripe(itemId);
+        long generation = occupancyGenerations.get(stripe);
+        ItemOccupancy occupancy = occupancyLoader.load(itemId);
+        // реплика может еще не содержать изменение, зафиксированное на основной базе менее maxLag назад:
+        // такая занятость возвращается, но не кэшируется
+        if (cache != null && (generation == 0 || replicaMaxLagNanos == 0
+                || System.nanoTime() - occupancyChangedAt.get(stripe) >= replicaMaxLagNanos)) {
+            cache.put(itemId, occupancy);
+            // статус бронирования вещи изменили во время чтения, и сброс мог пройти до записи в кэш
+            if (occupancyGenerations.get(stripe) != generation) {
+                cache.evict(itemId);
             }
         }
-        return listOfBookingDto;
+        return occupancy;
     }
 
-    @Transactional
-    // Получение списка бронирований для всех вещей текущего пользователя
-    public List<Booking> getAllBookingByOwner(int from, int size, long ownerId, String state) {
-        // проверяем отрицательный ли параметр
+    // Получение предыдущих бронирований для набора вещей одним запросом
+    public List<BookingLastNextProjection> getLastBookingsOfItems(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return bookingRepository.findLastBookingsOfItems(itemIds, now, LAST_NEXT_STATUSES);
+    }
+
+    // Получение следующих бронирований для набора вещей одним запросом
+    public List<BookingLastNextProjection> getNextBookingsOfItems(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return bookingRepository.findNextBookingsOfItems(itemIds, now, LAST_NEXT_STATUSES);
+    }
+
+    // Получение всех бронирований для данной вещи данным пользователем до настоящего времени
+    public List<Booking> getAllBookingForItemByUser(Item item, User user, LocalDateTime now) {
+        return bookingRepository.findByBookingByItemAndBookerAndEndBefore(item, user, now);
+    }
+
+    // Страница для параметров from и size; from не может быть отрицательным, size должен быть положительным
+    private PageRequest toPageRequest(int from, int size) {
         if (from < 0) {
             throw new ValidationException("Значение не может быть отрицательным");
         }
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        // Проверка параметра state
-        State stateOfBooking;
-        if (state.isBlank()) {
-            stateOfBooking = State.ALL;
-        } else {
-            try {
-                stateOfBooking = State.valueOf(state.toUpperCase());
-            } catch (RuntimeException ex) {
-                log.info("Введенный статус не существует");
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-            }
+        if (size <= 0) {
+            throw new ValidationException("Количество элементов для отображения должно быть положительным");
         }
-        List<Booking> listOfBooking = new ArrayList<>();
-        User owner = userService.getUserById(ownerId);
-        switch (stateOfBooking) {
-            case ALL: {
-                listOfBooking = bookingRepository.findAllByItem_OwnerOrderByStartDesc(owner, pageRequest);
-                break;
-            }
-            case CURRENT: {
-                listOfBooking = bookingRepository.findAllByItem_OwnerAndStartBeforeAndEndAfterOrderByStartDesc(
-                        owner, LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                break;
-            }
-            case PAST: {
-                listOfBooking = bookingRepository.findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(
-                        owner, LocalDateTime.now(), pageRequest);
-                break;
-            }
-            case FUTURE: {
-                listOfBooking = bookingRepository.findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(
-                        owner, LocalDateTime.now(), pageRequest);
-                break;
-            }
-            case WAITING: {
-                listOfBooking = bookingRepository.findAllByItem_OwnerAndStatusOrderByStartDesc(
-                        owner, Status.WAITING, pageRequest);
-                break;
-            }
-            case REJECTED: {
-                listOfBooking = bookingRepository.findAllByItem_OwnerAndStatusOrderByStartDesc(
-                        owner, Status.REJECTED, pageRequest);
-                break;
-            }
+        return PageRequest.of(from / size, size);
+    }
+
+    // Отмена не более limit бронирований, так и не подтвержденных до начала срока аренды; подтвержденные
+    // или отклоненные за это время бронирования не затрагиваются
+    @Transactional
+    public int expireWaitingBookings(LocalDateTime now, int limit) {
+        List<Long> bookingIds = bookingRepository.findIdsByStatusAndStartBefore(Status.WAITING, now,
+                PageRequest.of(0, limit));
+        if (bookingIds.isEmpty()) {
+            return 0;
         }
-        return listOfBooking;
+        int expired = bookingRepository.updateStatusByIdsAndStatus(bookingIds, Status.WAITING, Status.CANCELED);
+        log.info("Отменено {} неподтвержденных бронирований, начавшихся до {}", expired, now);
+        return expired;
     }
 
-    // Получение списка всех бронирований для данной вещи
-    public List<Booking> getAllBookingByUser(Item item) {
-        return bookingRepository.findAllByItemOrderByStartDesc(item);
+    // Проверка параметра state
+    private State parseState(String state) {
+        if (state.isBlank()) {
+            return State.ALL;
+        }
+        try {
+            return State.valueOf(state.toUpperCase());
+        } catch (RuntimeException ex) {
+            log.info("Введенный статус не существует");
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
     }
 
-    // Получение всех бронирований для данной вещи данным пользователем до настоящего времени
-    public List<Booking> getAllBookingForItemByUser(Item item, User user, LocalDateTime now) {
-        return bookingRepository.findByBookingByItemAndBookerAndEndBefore(item, user, now);
+    // Выборка страницы по курсору (дата начала и идентификатор последнего бронирования предыдущей страницы)
+    private CursorPage<BookingDtoWithItem> getBookingPage(Long bookerId, Long ownerId, State state, String cursor, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Количество элементов для отображения должно быть положительным");
+        }
+        LocalDateTime afterStart = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                afterStart = LocalDateTime.parse(position[0]);
+            } catch (DateTimeParseException e) {
+                throw new ValidationException("Передан некорректный курсор");
+            }
+            afterId = CursorCodec.toLong(position[1]);
+        }
+        List<BookingDtoWithItem> bookings = bookingRepository.findBookingDtosAfter(bookerId, ownerId, state,
+                LocalDateTime.now(), afterStart, afterId, size);
+        String nextCursor = null;
+        if (bookings.size() == size) {
+            BookingDtoWithItem last = bookings.get(bookings.size() - 1);
+            nextCursor = CursorCodec.encode(last.getStart(), last.getId());
+        }
+        return new CursorPage<>(bookings, nextCursor);
     }
-}
\ No newline at end of file
+}
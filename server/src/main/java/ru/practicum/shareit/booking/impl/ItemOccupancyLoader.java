@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.ItemOccupancy;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemService;
+
+// Загрузка занятости вещи из базы при промахе кэша. Отдельный бин, чтобы транзакция только для чтения
+// открывалась через прокси и только при промахе: попадание в кэш обходится без транзакции
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemOccupancyLoader {
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+
+    // Занятость вещи подтвержденными бронированиями
+    @Transactional(readOnly = true)
+    public ItemOccupancy load(long itemId) {
+        itemService.getItemsById(itemId);
+        ItemOccupancy occupancy = ItemOccupancy.of(bookingRepository.findPeriodsByItem(itemId, Status.APPROVED));
+        log.info("Занятость вещи с Id = {} загружена: {} периодов", itemId, occupancy.size());
+        return occupancy;
+    }
+}
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
-@ToString(exclude = "item")
+@ToString(exclude = {"item", "booker"})
 @NoArgsConstructor
 @Entity
 @Table(name = "bookings")
@@ -22,12 +22,13 @@ import java.time.LocalDateTime;
 public class Booking {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private long bookingId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker;
     @Column(name = "start_date_time")
@@ -36,6 +37,9 @@ public class Booking {
     private LocalDateTime end;
     @Enumerated(EnumType.STRING)
     private Status status;
+    // версия для оптимистической блокировки: одновременные изменения статуса не перезаписывают друг друга
+    @Version
+    private long version;
 
     public Booking(long bookingId, Item item, User booker, LocalDateTime start, LocalDateTime end) {
         this.bookingId = bookingId;
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.dto.BookingPeriodProjection;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Занятость вещи: отсортированные непересекающиеся периоды подтвержденных бронирований [start, end).
+// Календарь на интервал строится двоичным поиском по концам периодов, без просмотра всей истории бронирований
+public final class ItemOccupancy {
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    private ItemOccupancy(LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    // Периоды должны быть упорядочены по началу; пересекающиеся и смежные периоды объединяются
+    public static ItemOccupancy of(List<? extends BookingPeriodProjection> periods) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        for (BookingPeriodProjection period : periods) {
+            int last = ends.size() - 1;
+            if (last >= 0 && !period.getStartTime().isAfter(ends.get(last))) {
+                if (period.getEndTime().isAfter(ends.get(last))) {
+                    ends.set(last, period.getEndTime());
+                }
+            } else {
+                starts.add(period.getStartTime());
+                ends.add(period.getEndTime());
+            }
+        }
+        return new ItemOccupancy(starts.toArray(new LocalDateTime[0]), ends.toArray(new LocalDateTime[0]));
+    }
+
+    // Свободные и занятые интервалы, покрывающие [from, to) без пропусков
+    public List<AvailabilitySlotDto> getSlots(LocalDateTime from, LocalDateTime to) {
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (int i = firstEndingAfter(from); i < ends.length && starts[i].isBefore(to); i++) {
+            if (starts[i].isAfter(cursor)) {
+                slots.add(new AvailabilitySlotDto(cursor, starts[i], false));
+                cursor = starts[i];
+            }
+            LocalDateTime busyEnd = ends[i].isBefore(to) ? ends[i] : to;
+            slots.add(new AvailabilitySlotDto(cursor, busyEnd, true));
+            cursor = busyEnd;
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(cursor, to, false));
+        }
+        return slots;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    // Индекс первого периода, заканчивающегося позже time
+    private int firstEndingAfter(LocalDateTime time) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle].isAfter(time)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
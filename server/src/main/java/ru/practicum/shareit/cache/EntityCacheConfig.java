@@ -0,0 +1,98 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+@ConditionalOnProperty(prefix = "shareit.entity-cache", name = "enabled", havingValue = "true")
+public class EntityCacheConfig {
+    public static final List<String> ENTITY_REGIONS = List.of(User.CACHE_REGION, Item.CACHE_REGION,
+            ItemRequest.CACHE_REGION);
+
+    // Отдельный менеджер кэшей на каждый контекст приложения, регионы создаются заранее с ограничением размера
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        ENTITY_REGIONS.forEach(region -> createRegion(cacheManager, region, properties.getRegion(region)));
+        if (properties.isQueryCache()) {
+            String queryRegion = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+            createRegion(cacheManager, queryRegion, properties.getRegion(queryRegion));
+            // отметки времени изменения таблиц не вытесняются, иначе кэш запросов может вернуть устаревшие данные
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                    regionConfiguration());
+        }
+        return cacheManager;
+    }
+
+    // Включение кэша второго уровня; вытеснение записей выполняет сам Hibernate при сохранении и удалении сущностей
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateCustomizer(CacheManager entityCacheManager,
+                                                                        EntityCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isQueryCache());
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    // Доля попаданий в кэш по каждому региону сущностей
+    @Bean
+    public MeterBinder entityCacheHitRatioMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            ENTITY_REGIONS.forEach(region -> Gauge.builder("shareit.entity.cache.hit.ratio",
+                            statistics, stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                    .tag("region", region)
+                    .register(registry));
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        long requests = statistics.getHitCount() + statistics.getMissCount();
+        return requests == 0 ? 0 : (double) statistics.getHitCount() / requests;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region,
+                                     EntityCacheProperties.Region settings) {
+        CaffeineConfiguration<Object, Object> configuration = regionConfiguration();
+        configuration.setMaximumSize(OptionalLong.of(settings.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(settings.getExpireAfterWrite().toNanos()));
+        cacheManager.createCache(region, configuration);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate сам хранит разобранное состояние сущности, копирование при каждом обращении не нужно
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.entity-cache")
+public class EntityCacheProperties {
+    private boolean enabled = false; // кэш второго уровня Hibernate
+    private boolean queryCache = true; // кэш результатов запросов, помеченных как кэшируемые
+    private Region defaults = new Region(); // настройки регионов, не перечисленных явно
+    private Map<String, Region> regions = new HashMap<>(); // настройки по имени региона
+
+    public Region getRegion(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maximumSize = 10_000; // максимальное число записей в регионе
+        private Duration expireAfterWrite = Duration.ofMinutes(10); // время жизни записи
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -9,5 +11,15 @@ import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    // Автор загружается вместе с комментарием: CommentMapper использует его имя
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemOrderByItem(Item item);
+
+    // Возвращает комментарии сразу для набора вещей
+    @Query("select c " +
+            "from Comment c " +
+            "join fetch c.author " +
+            "where c.item in ?1 " +
+            "order by c.id")
+    List<Comment> findAllByItemIn(List<Item> items);
 }
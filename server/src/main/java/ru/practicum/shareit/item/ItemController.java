@@ -1,10 +1,16 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -12,10 +18,12 @@ import java.util.stream.Collectors;
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    private static final int STREAM_BATCH_SIZE = 100; // размер порции при потоковой выдаче результатов поиска
 
     private final ItemService itemService;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ObjectMapper objectMapper;
 
     @PostMapping // Создание новой вещи
     public ResponseEntity<ItemDto> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -23,6 +31,12 @@ public class ItemController {
         return ResponseEntity.ok().body(itemMapper.toItemDto(itemService.createItem(userId, itemDto)));
     }
 
+    @PostMapping("/batch") // Создание списка вещей, результат по каждой вещи в порядке передачи
+    public ResponseEntity<List<ItemBatchResultDto>> createItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestBody List<ItemDto> itemDtos) {
+        return ResponseEntity.ok().body(itemService.createItems(userId, itemDtos));
+    }
+
     @PatchMapping("/{itemId}") // Обновление информации о вещи
     public ResponseEntity<ItemDto> updateItemById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable long itemId,
                                                   @RequestBody ItemDto itemDto) {
@@ -40,12 +54,48 @@ public class ItemController {
         return ResponseEntity.ok().body(itemService.getItemWithBooker(itemId, userId));
     }
 
-    @GetMapping("/search") // Поиск вещи по строке text
-    public ResponseEntity<List<ItemDto>> searchAvailableItems(@RequestParam String text) {
-        return ResponseEntity.ok().body(itemService.searchAvailableItems(text)
-                .stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList()));
+    @GetMapping("/{itemId}/availability") // Календарь вещи: свободные и занятые интервалы на промежутке [from, to)
+    public ResponseEntity<List<AvailabilitySlotDto>> getItemAvailability(
+            @PathVariable long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok().body(itemService.getItemAvailability(itemId, from, to));
+    }
+
+    @GetMapping("/search") // Поиск вещи по строке text, при передаче size или cursor - постранично
+    public ResponseEntity<List<ItemDto>> searchAvailableItems(@RequestParam String text,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok().body(itemService.searchAvailableItems(text)
+                    .stream()
+                    .map(itemMapper::toItemDto)
+                    .collect(Collectors.toList()));
+        }
+        CursorPage<ItemDto> page = itemService.searchAvailableItems(text, cursor, size == null ? 20 : size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE) // Потоковый поиск вещи, по одной вещи в строке
+    public ResponseEntity<StreamingResponseBody> streamAvailableItems(@RequestParam String text) {
+        // каждая порция читается отдельной read-only транзакцией сервиса и сразу в виде DTO,
+        // поэтому в памяти одновременно находится только одна порция, а сущности не накапливаются
+        StreamingResponseBody body = outputStream -> {
+            String cursor = null;
+            do {
+                CursorPage<ItemDto> page = itemService.searchAvailableItems(text, cursor, STREAM_BATCH_SIZE);
+                for (ItemDto item : page.getContent()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+        return ResponseEntity.ok().body(body);
     }
 
     @PostMapping("/{itemId}/comment") // Добавление комментариев
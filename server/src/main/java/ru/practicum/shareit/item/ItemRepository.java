@@ -1,20 +1,76 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.item.dto.ItemSearchProjection;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    // Условие поиска доступной вещи по строке в названии или описании; в :text символы %, _ и \
+    // должны быть экранированы обратной косой чертой (ItemServiceImpl.escapeLike)
+    String SEARCH_CONDITION = "(upper(i.name) like upper(concat('%', :text, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', :text, '%')) escape '\\') " +
+            "and i.isAvailable = true ";
+
+    // Релевантность: 0 - название начинается со строки, 1 - название содержит строку, 2 - совпадение в описании
+    String SEARCH_RANK = "case " +
+            "when upper(i.name) like upper(concat(:text, '%')) escape '\\' then 0 " +
+            "when upper(i.name) like upper(concat('%', :text, '%')) escape '\\' then 1 " +
+            "else 2 end";
+
+    // Блокировка строк вещей до конца транзакции; порядок по id исключает взаимную блокировку
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.itemId in :itemIds order by i.itemId")
+    List<Item> lockByIds(@Param("itemIds") Collection<Long> itemIds);
+
+    // Результат кэшируется при включенном кэше запросов Hibernate и сбрасывается при любом изменении вещей
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Item> findItemsByOwnerIdOrderByItemIdAsc(Long userId);
 
+    // Поиск доступных вещей: сначала совпадения в начале названия, затем в названии, затем в описании
     @Query("select i from Item as i " +
-            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))" +
-            "and i.isAvailable = true")
-    List<Item> searchAvailableItems(String text);
+            "where " + SEARCH_CONDITION +
+            "order by " + SEARCH_RANK + ", i.itemId")
+    List<Item> searchAvailableItems(@Param("text") String text);
+
+    // Поля вещи для страницы поиска: сущности не загружаются и не остаются в контексте персистентности
+    String SEARCH_ROW = "select i.itemId as id, i.name as name, i.description as description, " +
+            "i.isAvailable as available, r.id as requestId, " + SEARCH_RANK + " as searchRank " +
+            "from Item as i left join i.request as r ";
+
+    // Первая страница поиска; релевантность выбирается вместе с вещью, чтобы курсор совпадал с сортировкой
+    @Query(SEARCH_ROW +
+            "where " + SEARCH_CONDITION +
+            "order by " + SEARCH_RANK + ", i.itemId")
+    List<ItemSearchProjection> searchAvailableItems(@Param("text") String text, Pageable pageable);
+
+    // Следующая страница поиска после вещи с релевантностью rank и идентификатором itemId
+    @Query(SEARCH_ROW +
+            "where " + SEARCH_CONDITION +
+            "and (" + SEARCH_RANK + " > :rank " +
+            "or (" + SEARCH_RANK + " = :rank and i.itemId > :itemId)) " +
+            "order by " + SEARCH_RANK + ", i.itemId")
+    List<ItemSearchProjection> searchAvailableItemsAfter(@Param("text") String text, @Param("rank") int rank,
+                                                         @Param("itemId") long itemId, Pageable pageable);
+
+    // Вещи, созданные в ответ на запросы из набора, сразу в виде DTO (без загрузки сущностей и их связей)
+    @Query("select new ru.practicum.shareit.item.dto.ItemDtoForRequest(" +
+            "i.itemId, i.name, i.description, i.isAvailable, i.request.id) " +
+            "from Item as i " +
+            "where i.request.id in :requestIds " +
+            "order by i.itemId")
+    List<ItemDtoForRequest> findItemsForRequests(@Param("requestIds") Collection<Long> requestIds);
 }
@@ -1,25 +1,41 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForBookingAndComments;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
     Item createItem(Long userId, ItemDto itemDto);
 
+    List<ItemBatchResultDto> createItems(Long userId, List<ItemDto> itemDtos);
+
     Item updateItem(Long userId, Long itemId, ItemDto itemDto);
 
     List<ItemDtoForBookingAndComments> getAllItemsUser(Long userId);
 
     Item getItemsById(Long itemId);
 
+    void lockItems(Collection<Long> itemIds);
+
     List<Item> searchAvailableItems(String text);
 
+    CursorPage<ItemDto> searchAvailableItems(String text, String cursor, int size);
+
     ItemDtoForBookingAndComments getItemWithBooker(long itemId, long ownerId);
 
+    List<AvailabilitySlotDto> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
     Comment addComment(long userId, long itemId, CommentDto commentDto);
+
+    List<ItemDtoForRequest> getItemsForRequests(Collection<Long> requestIds);
 }
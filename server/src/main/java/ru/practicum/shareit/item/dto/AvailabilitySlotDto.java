@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Интервал календаря вещи [start, end): свободен либо занят подтвержденным бронированием
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class AvailabilitySlotDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean busy;
+
+    public AvailabilitySlotDto(LocalDateTime start, LocalDateTime end, boolean busy) {
+        this.start = start;
+        this.end = end;
+        this.busy = busy;
+    }
+}
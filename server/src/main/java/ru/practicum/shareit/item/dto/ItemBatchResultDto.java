@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+// Результат добавления одной вещи из списка: созданная вещь либо причина, по которой она не добавлена
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ItemBatchResultDto {
+    private int index; // позиция вещи в переданном списке
+    private ItemDto item;
+    private String error;
+
+    public ItemBatchResultDto(int index, ItemDto item, String error) {
+        this.index = index;
+        this.item = item;
+        this.error = error;
+    }
+}
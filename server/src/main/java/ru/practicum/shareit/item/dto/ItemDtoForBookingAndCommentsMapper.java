@@ -11,5 +11,6 @@ public interface ItemDtoForBookingAndCommentsMapper {
     @Mapping(source = "name", target = "name")
     @Mapping(source = "description", target = "description")
     @Mapping(source = "isAvailable", target = "available")
+    @Mapping(target = "comments", ignore = true) // комментарии заполняет сервис, иначе ленивая коллекция грузится для каждой вещи
     ItemDtoForBookingAndComments toItemDtoForBookingAndComments(Item item);
 }
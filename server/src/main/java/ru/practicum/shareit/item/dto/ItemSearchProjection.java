@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+// Строка результата поиска без загрузки сущности вещи, вместе с релевантностью, вычисленной тем же
+// выражением, что и сортировка поиска
+public interface ItemSearchProjection {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    int getSearchRank();
+}
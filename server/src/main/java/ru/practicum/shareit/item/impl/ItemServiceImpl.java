@@ -2,12 +2,14 @@ package ru.practicum.shareit.item.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingLastNextDto;
 import ru.practicum.shareit.booking.dto.BookingLastNextDtoMapper;
+import ru.practicum.shareit.booking.dto.BookingLastNextProjection;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.CommentRepository;
@@ -16,14 +18,22 @@ import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +42,7 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository; // оставляем использование репозитория Comment, так как для сущности не создавался сервис
+    private final ItemRequestRepository itemRequestRepository; // сервис запросов сам зависит от ItemService
     private final UserService userService;
     private final BookingService bookingService;
     private final ItemDtoForBookingAndCommentsMapper itemDtoForBookingAndCommentsMapper;
@@ -40,9 +51,9 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
 
     // Добавление вещи
+    @Transactional
     public Item createItem(Long userId, ItemDto itemDto) throws NotFoundException {
         Item item = itemMapper.toItem(itemDto);
-        userService.getUserById(userId);
         item.setOwner(userService.getUserById(userId));
         log.info("Вещь успешно добавлена");
         if (item.getRequest().getId() == 0) {
@@ -51,11 +62,67 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.save(item);
     }
 
+    // Добавление списка вещей одной транзакцией: вещи с ошибками пропускаются, остальные вставляются пакетами
+    @Transactional
+    public List<ItemBatchResultDto> createItems(Long userId, List<ItemDto> itemDtos) throws NotFoundException {
+        User owner = userService.getUserById(userId);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(requestId -> requestId != null && requestId != 0)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        List<ItemBatchResultDto> created = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            String error = validateItem(itemDto, requests);
+            ItemBatchResultDto result = new ItemBatchResultDto(i, null, error);
+            results.add(result);
+            if (error == null) {
+                Item item = itemMapper.toItem(itemDto);
+                item.setOwner(owner);
+                item.setRequest(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()));
+                items.add(item);
+                created.add(result);
+            }
+        }
+        List<Item> savedItems = itemRepository.saveAll(items);
+        for (int i = 0; i < savedItems.size(); i++) {
+            created.get(i).setItem(itemMapper.toItemDto(savedItems.get(i)));
+        }
+        log.info("Добавлено вещей: {} из {}", savedItems.size(), itemDtos.size());
+        return results;
+    }
+
+    // Причина, по которой вещь из списка не может быть добавлена, или null
+    private String validateItem(ItemDto itemDto, Map<Long, ItemRequest> requests) {
+        if (itemDto == null) {
+            return "Не передана вещь";
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Не указано название вещи";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Не указано описание вещи";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Не указана доступность вещи";
+        }
+        if (itemDto.getRequestId() != null && itemDto.getRequestId() != 0
+                && !requests.containsKey(itemDto.getRequestId())) {
+            return "Запрос с указанным id не найден";
+        }
+        return null;
+    }
+
     // Обновление вещи
     @Transactional
     public Item updateItem(Long userId, Long itemId, ItemDto itemDto) throws NotFoundException {
         Item item = itemMapper.toItem(itemDto);
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         try {
             Item saved = itemRepository.getReferenceById(itemId);
             if (item.getName() != null) {
@@ -77,32 +144,33 @@ public class ItemServiceImpl implements ItemService {
     }
 
     // Получение вещей пользователя
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ItemDtoForBookingAndComments> getAllItemsUser(Long userId) {
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         log.info("Пользователь с Id = {} существует в базе", userId);
 
         List<Item> items = itemRepository.findItemsByOwnerIdOrderByItemIdAsc(userId);
         List<ItemDtoForBookingAndComments> allItemByUser = new ArrayList<>();
+        if (items.isEmpty()) {
+            log.info("Список вещей успешно получен");
+            return allItemByUser;
+        }
+        // предыдущие/следующие бронирования и комментарии загружаются для всех вещей пользователя сразу
+        List<Long> itemIds = items.stream().map(Item::getItemId).collect(Collectors.toList());
+        LocalDateTime timeNow = LocalDateTime.now();
+        Map<Long, BookingLastNextDto> lastBookings = getLastBookings(itemIds, timeNow);
+        Map<Long, BookingLastNextDto> nextBookings = getNextBookings(itemIds, timeNow);
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findAllByItemIn(items).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getItemId()));
         for (Item item : items) {
             ItemDtoForBookingAndComments itemFromBd = itemDtoForBookingAndCommentsMapper
                     .toItemDtoForBookingAndComments(item);
-            LocalDateTime timeNow = LocalDateTime.now();
-
-            BookingLastNextDto lastBooking = getLastBooking(item, timeNow);
-            BookingLastNextDto nextBooking = getNextBooking(item, timeNow);
-            itemFromBd.setLastBooking(lastBooking);
-            itemFromBd.setNextBooking(nextBooking);
+            itemFromBd.setLastBooking(lastBookings.get(item.getItemId()));
+            itemFromBd.setNextBooking(nextBookings.get(item.getItemId()));
 
-            List<Comment> commentsAboutItem = commentRepository.findAllByItemOrderByItem(item);
-            if (commentsAboutItem.isEmpty()) {
-                List<CommentDto> comments = new ArrayList<>();
-                itemFromBd.setComments(comments);
-            } else {
-                itemFromBd.setComments(commentsAboutItem.stream()
-                        .map(commentMapper::toCommentDto).collect(Collectors.toList()));
-                log.info("Список комментариев получен");
-            }
+            itemFromBd.setComments(commentsByItem.getOrDefault(item.getItemId(), Collections.emptyList()).stream()
+                    .map(commentMapper::toCommentDto)
+                    .collect(Collectors.toList()));
             allItemByUser.add(itemFromBd);
         }
         log.info("Список вещей успешно получен");
@@ -110,6 +178,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     // Получение вещи по Id
+    @Transactional(readOnly = true)
     public Item getItemsById(Long itemId) {
         Optional<Item> item = itemRepository.findById(itemId);
         if (item.isPresent()) {
@@ -121,32 +190,77 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    // Получение списка доступных вещей по поиску
+    // Календарь вещи: свободные и занятые интервалы на промежутке [from, to)
+    public List<AvailabilitySlotDto> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.info("Начало периода календаря указано после его окончания или равно ему");
+            throw new ValidationException("Начало периода календаря указано после его окончания или равно ему");
+        }
+        return bookingService.getItemOccupancy(itemId).getSlots(from, to);
+    }
+
+    // Блокировка вещей до конца текущей транзакции, чтобы изменения их бронирований выполнялись по очереди
     @Transactional
+    public void lockItems(Collection<Long> itemIds) {
+        itemRepository.lockByIds(itemIds);
+    }
+
+    // Получение списка доступных вещей по поиску
+    @Transactional(readOnly = true)
     public List<Item> searchAvailableItems(String text) {
         if (text.isBlank()) {
             log.debug("Передан пустой запрос, возвращен пустой список");
             return new ArrayList<>();
         } else {
             log.debug("Вызван метод поиска доступной вещи");
-            return itemRepository.searchAvailableItems(text);
+            return itemRepository.searchAvailableItems(escapeLike(text));
+        }
+    }
+
+    // Получение страницы доступных вещей по поиску, начиная с позиции курсора (сразу в виде DTO)
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> searchAvailableItems(String text, String cursor, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Количество элементов для отображения должно быть положительным");
+        }
+        if (text.isBlank()) {
+            log.debug("Передан пустой запрос, возвращена пустая страница");
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+        String pattern = escapeLike(text);
+        List<ItemSearchProjection> found;
+        if (cursor == null) {
+            found = itemRepository.searchAvailableItems(pattern, PageRequest.of(0, size));
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            found = itemRepository.searchAvailableItemsAfter(pattern, (int) CursorCodec.toLong(position[0]),
+                    CursorCodec.toLong(position[1]), PageRequest.of(0, size));
+        }
+        List<ItemDto> items = found.stream()
+                .map(row -> new ItemDto(row.getId(), row.getName(), row.getDescription(), row.getAvailable(),
+                        row.getRequestId()))
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (found.size() == size) {
+            ItemSearchProjection last = found.get(found.size() - 1);
+            nextCursor = CursorCodec.encode(last.getSearchRank(), last.getId());
         }
+        return new CursorPage<>(items, nextCursor);
     }
 
     // Получение пользователем информации о датах следующего предыдущего бронирований вещи
-    @Transactional
+    @Transactional(readOnly = true)
     public ItemDtoForBookingAndComments getItemWithBooker(long itemId, long ownerId) {
         Optional<Item> item = itemRepository.findById(itemId);
         if (item.isPresent()) {
-            userService.getUserById(ownerId);
+            userService.checkUserExists(ownerId);
             ItemDtoForBookingAndComments itemFromBd = itemDtoForBookingAndCommentsMapper
                     .toItemDtoForBookingAndComments(item.get());
             if (item.get().getOwner().getId() == ownerId) {
+                List<Long> itemIds = List.of(itemId);
                 LocalDateTime timeNow = LocalDateTime.now();
-                BookingLastNextDto lastBooking = getLastBooking(item.get(), timeNow);
-                BookingLastNextDto nextBooking = getNextBooking(item.get(), timeNow);
-                itemFromBd.setLastBooking(lastBooking);
-                itemFromBd.setNextBooking(nextBooking);
+                itemFromBd.setLastBooking(getLastBookings(itemIds, timeNow).get(itemId));
+                itemFromBd.setNextBooking(getNextBookings(itemIds, timeNow).get(itemId));
             } else {
                 log.info("Пользователь с Id = {} не является владельцев вещи, информация по бронированию не нужна", ownerId);
             }
@@ -168,45 +282,26 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    // Поиск следующего бронирования
-    private BookingLastNextDto getNextBooking(Item item, LocalDateTime timeNow) {
-        List<Booking> allBookingForItem = bookingService.getAllBookingByUser(item);
-        Booking nextBooking = null;
-        if (allBookingForItem != null && !allBookingForItem.isEmpty()) {
-            for (Booking b : allBookingForItem) {
-                if (b.getStart().isAfter(timeNow) && (b.getStatus().equals(Status.APPROVED))
-                        || (b.getStatus().equals(Status.WAITING))) {
-                    if (nextBooking == null) {
-                        nextBooking = b;
-                    } else if (b.getStart().isBefore(nextBooking.getStart())) {
-                        nextBooking = b;
-                    }
-                }
-            }
-            return bookingLastNextDtoMapper.toBookingLastNextDto(nextBooking);
-        }
-        return null;
+    // Поиск следующих бронирований вещей, выполняется на стороне базы данных
+    private Map<Long, BookingLastNextDto> getNextBookings(List<Long> itemIds, LocalDateTime timeNow) {
+        return bookingService.getNextBookingsOfItems(itemIds, timeNow).stream()
+                .collect(Collectors.toMap(BookingLastNextProjection::getItemId,
+                        bookingLastNextDtoMapper::toBookingLastNextDto));
     }
 
-    // Поиск предыдущего бронирования
-    private BookingLastNextDto getLastBooking(Item item, LocalDateTime timeNow) {
-        List<Booking> allBookingForItem = bookingService.getAllBookingByUser(item);
-        Booking lastBooking = null;
-        if (allBookingForItem != null && !allBookingForItem.isEmpty()) {
-            for (Booking b : allBookingForItem) {
-                if (b.getStart().isBefore(timeNow)) {
-                    if (lastBooking == null && (b.getStatus().equals(Status.APPROVED))) {
-                        lastBooking = b;
-                    } else if (lastBooking == null) {
-                        lastBooking = b;
-                    } else if (b.getEnd().isAfter(lastBooking.getEnd())) {
-                        lastBooking = b;
-                    }
-                }
-            }
-            return bookingLastNextDtoMapper.toBookingLastNextDto(lastBooking);
+    // Поиск предыдущих бронирований вещей, выполняется на стороне базы данных
+    private Map<Long, BookingLastNextDto> getLastBookings(List<Long> itemIds, LocalDateTime timeNow) {
+        return bookingService.getLastBookingsOfItems(itemIds, timeNow).stream()
+                .collect(Collectors.toMap(BookingLastNextProjection::getItemId,
+                        bookingLastNextDtoMapper::toBookingLastNextDto));
+    }
+
+    // Получение вещей, созданных в ответ на набор запросов, одним запросом к базе
+    public List<ItemDtoForRequest> getItemsForRequests(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
         }
-        return null;
+        return itemRepository.findItemsForRequests(requestIds);
     }
 
     // Добавление комментариев
@@ -233,4 +328,11 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Пользователь не найден");
         }
     }
-}
\ No newline at end of file
+
+    // Экранирование символов шаблона LIKE, чтобы строка поиска сравнивалась буквально
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
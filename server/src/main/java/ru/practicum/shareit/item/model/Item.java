@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -13,24 +15,28 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Item.CACHE_REGION)
 @Table(name = "items")
 @Getter
 @Setter
-@ToString
+@ToString(exclude = {"owner", "request", "comments", "bookings"})
 @NoArgsConstructor
 public class Item {
+    public static final String CACHE_REGION = "item"; // регион кэша второго уровня
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private long itemId; // идентификатор в базе
     private String name; // наименование
     private String description; // описание
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner; // номер пользователя которому принадлежит вещь
     @Column(name = "status")
     private Boolean isAvailable; // статус вещи: доступна не доступна
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request; // если вещь создана по запросу, то тут будет ссылка на запрос
     @OneToMany(mappedBy = "item")
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.pagination;
+
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+// Кодирование позиции последнего элемента страницы в непрозрачный курсор
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ";";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... parts) {
+        String raw = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int partsCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != partsCount) {
+                throw new ValidationException("Передан некорректный курсор");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Передан некорректный курсор");
+        }
+    }
+
+    public static long toLong(String part) {
+        try {
+            return Long.parseLong(part);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Передан некорректный курсор");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Страница выборки и курсор для получения следующей страницы (null, если страница последняя)
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor"; // заголовок ответа с курсором следующей страницы
+
+    private final List<T> content;
+    private final String nextCursor;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.replica;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Проверка отставания реплики в фоновом потоке раз в lag-check-interval: транзакции только читают
+// последний результат и не ждут ни реплику, ни друг друга
+@Slf4j
+public class ReplicaLagMonitor implements Closeable {
+
+    private final DataSource replica;
+    private final ReplicaRoutingProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean usable = false;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaRoutingProperties properties) {
+        this.replica = replica;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Запуск периодической проверки; до первой проверки чтение идет с основной базы
+    public void start() {
+        long interval = properties.getLagCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Можно ли сейчас читать с реплики
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    // Проверка отставания; вызывается по расписанию, поэтому одновременно выполняется только одна проверка
+    public synchronized void refresh() {
+        boolean wasUsable = usable;
+        usable = checkLag();
+        if (wasUsable && !usable) {
+            log.warn("Реплика недоступна или отстает больше чем на {}, чтение переключено на основную базу",
+                    properties.getMaxLag());
+        } else if (!wasUsable && usable) {
+            log.info("Чтение переключено на реплику");
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private boolean checkLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+            return lagSeconds * 1000 <= properties.getMaxLag().toMillis();
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Не удалось определить отставание реплики", e);
+            return false;
+        }
+    }
+}
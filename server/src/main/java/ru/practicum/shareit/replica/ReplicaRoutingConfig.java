@@ -0,0 +1,43 @@
+package ru.practicum.shareit.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // Пулы основной базы и реплики не регистрируются как отдельные бины: приложение, Flyway и учет SQL-запросов
+    // работают с единственным маршрутизирующим источником данных
+    @Bean
+    public DataSource dataSource(DataSourceProperties primaryProperties,
+                                               ReplicaRoutingProperties replicaProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("shareit-primary");
+        HikariDataSource replica = DataSourceBuilder.create(getClass().getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(replicaProperties.getDriverClassName())
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        replica.setPoolName("shareit-replica");
+        replica.setReadOnly(true);
+        // недоступная реплика должна быстро давать ошибку, а не держать проверку и чтения десятки секунд
+        replica.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+        replica.setValidationTimeout(replicaProperties.getValidationTimeout().toMillis());
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, replicaProperties);
+        lagMonitor.start();
+        return new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.replica;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.replica")
+public class ReplicaRoutingProperties {
+    private boolean enabled = false; // направление транзакций только для чтения на реплику
+    private String url; // адрес реплики
+    private String username;
+    private String password;
+    private String driverClassName;
+    private Duration maxLag = Duration.ofSeconds(5); // допустимое отставание, при большем чтение идет с основной базы
+    private Duration lagCheckInterval = Duration.ofSeconds(1); // как часто перепроверять отставание реплики
+    private Duration connectionTimeout = Duration.ofSeconds(1); // ожидание соединения с репликой
+    private Duration validationTimeout = Duration.ofMillis(500); // проверка соединения, меньше connectionTimeout
+    // Отставание реплики в секундах; 0, если реплика применила все полученные изменения
+    private String lagQuery = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+}
@@ -3,11 +3,11 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -27,27 +27,37 @@ public class ItemRequestController {
     @GetMapping // Получение пользователем всех запросов
     public ResponseEntity<List<ItemRequestDto>> getAllItemRequestOfUser(@RequestHeader("X-Sharer-User-Id") long userId,
                                                                         @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                        @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return ResponseEntity.ok().body(itemRequestService.getAllItemRequestOfUser(userId, from, size)
-                .stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList()));
+                                                                        @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                                        @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return toPageResponse(itemRequestService.getItemRequestPageOfUser(userId, cursor, size));
+        }
+        return ResponseEntity.ok().body(itemRequestService.getAllItemRequestOfUser(userId, from, size));
     }
 
     @GetMapping("/all") // Получение пользователем списка запросов созданного другими пользователями
     public ResponseEntity<List<ItemRequestDto>> getAllItemRequestOfOtherUsers(@RequestHeader("X-Sharer-User-Id") long userId,
                                                                               @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                                              @RequestParam(required = false, defaultValue = "20") Integer size) {
-        return ResponseEntity.ok().body(itemRequestService.getAllItemRequestOfOtherUsers(userId, from, size)
-                .stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList()));
+                                                                              @RequestParam(required = false, defaultValue = "20") Integer size,
+                                                                              @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return toPageResponse(itemRequestService.getItemRequestPageOfOtherUsers(userId, cursor, size));
+        }
+        return ResponseEntity.ok().body(itemRequestService.getAllItemRequestOfOtherUsers(userId, from, size));
     }
 
     @GetMapping("/{requestId}") // Получение информации о бронировании
     public ResponseEntity<ItemRequestDto> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
                                                              @PathVariable long requestId) {
-        return ResponseEntity.ok().body(itemRequestMapper
-                .toItemRequestDto(itemRequestService.getItemRequest(requestId, userId)));
+        return ResponseEntity.ok().body(itemRequestService.getItemRequest(requestId, userId));
+    }
+
+    // Страница по курсору (пустой cursor - первая страница), курсор следующей страницы передается в заголовке
+    private ResponseEntity<List<ItemRequestDto>> toPageResponse(CursorPage<ItemRequestDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
     }
 }
@@ -2,14 +2,35 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllItemRequestByRequester_IdIsNot(Long userId, Pageable pageable);
+    // Автор запроса не загружается: ItemRequestMapper использует только его id из внешнего ключа
 
-    List<ItemRequest> findAllByRequesterId(Long userId, Pageable pageable);
+    List<ItemRequest> findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    List<ItemRequest> findAllByRequesterIdOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    // Запросы других пользователей, созданные раньше позиции (created, id)
+    @Query("select r from ItemRequest r " +
+            "where r.requester.id <> :userId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findOtherUsersRequestsAfter(@Param("userId") Long userId, @Param("created") LocalDateTime created,
+                                                  @Param("id") long id, Pageable pageable);
+
+    // Запросы пользователя, созданные раньше позиции (created, id)
+    @Query("select r from ItemRequest r " +
+            "where r.requester.id = :userId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findUserRequestsAfter(@Param("userId") Long userId, @Param("created") LocalDateTime created,
+                                            @Param("id") long id, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -8,9 +9,13 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequest createItemRequest(ItemRequestDto itemRequestDto, Long userId);
 
-    List<ItemRequest> getAllItemRequestOfUser(Long userId, Integer from, Integer size);
+    List<ItemRequestDto> getAllItemRequestOfUser(Long userId, Integer from, Integer size);
 
-    List<ItemRequest> getAllItemRequestOfOtherUsers(Long userId, Integer from, Integer size);
+    List<ItemRequestDto> getAllItemRequestOfOtherUsers(Long userId, Integer from, Integer size);
 
-    ItemRequest getItemRequest(Long requestId, Long userId);
+    CursorPage<ItemRequestDto> getItemRequestPageOfUser(Long userId, String cursor, Integer size);
+
+    CursorPage<ItemRequestDto> getItemRequestPageOfOtherUsers(Long userId, String cursor, Integer size);
+
+    ItemRequestDto getItemRequest(Long requestId, Long userId);
 }
@@ -14,6 +14,7 @@ public interface ItemRequestMapper {
 
     @Mapping(source = "id", target = "id")
     @Mapping(source = "requester", target = "ownerId", qualifiedBy = RequesterToOwnerIdDto.class)
+    @Mapping(target = "items", ignore = true) // вещи загружаются сервисом одним запросом для всей страницы
     ItemRequestDto toItemRequestDto(ItemRequest itemRequest);
 
     @RequesterToOwnerIdDto
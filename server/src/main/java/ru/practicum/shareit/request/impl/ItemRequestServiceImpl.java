@@ -4,8 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -14,11 +20,13 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,9 +34,11 @@ import java.util.Optional;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserService userService;
+    private final ItemService itemService;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper itemRequestMapper;
 
+    @Transactional
     public ItemRequest createItemRequest(ItemRequestDto itemRequestDto, Long userId) throws NotFoundException {
         ItemRequest itemRequest = itemRequestMapper.toItemRequest(itemRequestDto);
         User user = userService.getUserById(userId);
@@ -38,46 +48,119 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestRepository.save(itemRequest);
     }
 
-    @Transactional
-    public List<ItemRequest> getAllItemRequestOfUser(Long userId, Integer from, Integer size) {
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllItemRequestOfUser(Long userId, Integer from, Integer size) {
         if (from < 0) {
             throw new ValidationException("Индекс первого элемента должен быть не отрицательным");
         } else if (size <= 0) {
             throw new ValidationException("Количество элементов для отображения должно быть положительным");
         }
-        userService.getUserById(userId);
-        List<ItemRequest> allItemRequestOfUser = itemRequestRepository.findAllByRequesterId(userId, PageRequest.of(from, size));
-        if (allItemRequestOfUser.isEmpty()) {
-            return new ArrayList<>();
-        } else {
-            return allItemRequestOfUser;
-        }
+        userService.checkUserExists(userId);
+        List<ItemRequest> allItemRequestOfUser = itemRequestRepository
+                .findAllByRequesterIdOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(from, size));
+        return toItemRequestDtoWithItems(allItemRequestOfUser);
     }
 
-    @Transactional
-    public List<ItemRequest> getAllItemRequestOfOtherUsers(Long userId, Integer from, Integer size) {
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllItemRequestOfOtherUsers(Long userId, Integer from, Integer size) {
         if (from < 0) {
             throw new ValidationException("Индекс первого элемента должен быть не отрицательным");
         } else if (size <= 0) {
             throw new ValidationException("Количество элементов для отображения должно быть положительным");
         }
-        userService.getUserById(userId);
-        List<ItemRequest> allItemRequestOfUser = itemRequestRepository.findAllItemRequestByRequester_IdIsNot(userId, PageRequest.of(from, size));
-        if (allItemRequestOfUser.isEmpty()) {
-            return new ArrayList<>();
+        userService.checkUserExists(userId);
+        List<ItemRequest> allItemRequestOfOtherUsers = itemRequestRepository
+                .findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(from, size));
+        return toItemRequestDtoWithItems(allItemRequestOfOtherUsers);
+    }
+
+    // Получение страницы запросов пользователя, начиная с позиции курсора
+    @Transactional(readOnly = true)
+    public CursorPage<ItemRequestDto> getItemRequestPageOfUser(Long userId, String cursor, Integer size) {
+        checkPageSize(size);
+        userService.checkUserExists(userId);
+        List<ItemRequest> itemRequests;
+        if (cursor == null || cursor.isBlank()) {
+            itemRequests = itemRequestRepository
+                    .findAllByRequesterIdOrderByCreatedDescIdDesc(userId, PageRequest.of(0, size));
         } else {
-            return allItemRequestOfUser;
+            String[] position = CursorCodec.decode(cursor, 2);
+            itemRequests = itemRequestRepository.findUserRequestsAfter(userId, parseCreated(position[0]),
+                    CursorCodec.toLong(position[1]), PageRequest.of(0, size));
         }
+        return toCursorPage(itemRequests, size);
     }
 
-    public ItemRequest getItemRequest(Long requestId, Long userId) {
-        userService.getUserById(userId);
+    // Получение страницы запросов других пользователей, начиная с позиции курсора
+    @Transactional(readOnly = true)
+    public CursorPage<ItemRequestDto> getItemRequestPageOfOtherUsers(Long userId, String cursor, Integer size) {
+        checkPageSize(size);
+        userService.checkUserExists(userId);
+        List<ItemRequest> itemRequests;
+        if (cursor == null || cursor.isBlank()) {
+            itemRequests = itemRequestRepository
+                    .findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(userId, PageRequest.of(0, size));
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            itemRequests = itemRequestRepository.findOtherUsersRequestsAfter(userId, parseCreated(position[0]),
+                    CursorCodec.toLong(position[1]), PageRequest.of(0, size));
+        }
+        return toCursorPage(itemRequests, size);
+    }
+
+    @Transactional(readOnly = true)
+    public ItemRequestDto getItemRequest(Long requestId, Long userId) {
+        userService.checkUserExists(userId);
         Optional<ItemRequest> itemRequest = itemRequestRepository.findById(requestId);
         if (itemRequest.isPresent()) {
-            return itemRequest.get();
+            return toItemRequestDtoWithItems(List.of(itemRequest.get())).get(0);
         } else {
             log.info("Запрос Id = {} не найден", requestId);
             throw new NotFoundException("Запрос не найден");
         }
     }
+
+    private void checkPageSize(Integer size) {
+        if (size <= 0) {
+            throw new ValidationException("Количество элементов для отображения должно быть положительным");
+        }
+    }
+
+    private LocalDateTime parseCreated(String created) {
+        try {
+            return LocalDateTime.parse(created);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Передан некорректный курсор");
+        }
+    }
+
+    // Курсор следующей страницы - дата создания и идентификатор последнего запроса
+    private CursorPage<ItemRequestDto> toCursorPage(List<ItemRequest> itemRequests, int size) {
+        String nextCursor = null;
+        if (itemRequests.size() == size) {
+            ItemRequest last = itemRequests.get(itemRequests.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreated(), last.getId());
+        }
+        return new CursorPage<>(toItemRequestDtoWithItems(itemRequests), nextCursor);
+    }
+
+    // Преобразование запросов в DTO, вещи для всех запросов загружаются одним запросом к базе
+    private List<ItemRequestDto> toItemRequestDtoWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDtoForRequest>> itemsByRequest = itemService.getItemsForRequests(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(ItemDtoForRequest::getRequestId));
+        List<ItemRequestDto> itemRequestDtos = new ArrayList<>();
+        for (ItemRequest itemRequest : itemRequests) {
+            ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(itemRequest);
+            itemRequestDto.setItems(itemsByRequest.getOrDefault(itemRequest.getId(), new ArrayList<>()));
+            itemRequestDtos.add(itemRequestDto);
+        }
+        return itemRequestDtos;
+    }
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.sql;
+
+// Счетчик SQL-запросов и времени их выполнения в рамках текущего HTTP-запроса (хранится в потоке обработки)
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statementCount;
+    private long elapsedMillis;
+
+    private SqlStatistics() {
+    }
+
+    public static void start() {
+        CURRENT.set(new SqlStatistics());
+    }
+
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    // null, если учет для текущего потока не запущен
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    static void record(int statements, long millis) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statementCount += statements;
+            statistics.elapsedMillis += millis;
+        }
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
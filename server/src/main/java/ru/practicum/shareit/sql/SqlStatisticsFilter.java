@@ -0,0 +1,62 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Учет SQL-запросов для каждого HTTP-запроса: метрики по эндпоинтам и предупреждение о превышении бюджета
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatisticsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatistics statistics = SqlStatistics.stop();
+            String endpoint = getEndpoint(request);
+            DistributionSummary.builder("shareit.sql.statements")
+                    .description("Количество SQL-запросов на один HTTP-запрос")
+                    .tag("method", request.getMethod())
+                    .tag("uri", endpoint)
+                    .register(meterRegistry)
+                    .record(statistics.getStatementCount());
+            Timer.builder("shareit.sql.time")
+                    .description("Суммарное время SQL-запросов на один HTTP-запрос")
+                    .tag("method", request.getMethod())
+                    .tag("uri", endpoint)
+                    .register(meterRegistry)
+                    .record(statistics.getElapsedMillis(), TimeUnit.MILLISECONDS);
+            if (statistics.getStatementCount() > properties.getStatementBudget()) {
+                meterRegistry.counter("shareit.sql.budget.exceeded", "method", request.getMethod(), "uri", endpoint)
+                        .increment();
+                log.warn("Запрос {} {} выполнил {} SQL-запросов за {} мс при допустимых {}", request.getMethod(),
+                        endpoint, statistics.getStatementCount(), statistics.getElapsedMillis(),
+                        properties.getStatementBudget());
+            }
+        }
+    }
+
+    // Шаблон пути эндпоинта (например, /items/{itemId}), чтобы не плодить метрики для каждого идентификатора
+    private String getEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Передача счетчиков SQL-запросов в заголовках ответа перед записью тела
+@RestControllerAdvice
+public class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String STATEMENT_COUNT_HEADER = "X-Sql-Statement-Count";
+    public static final String ELAPSED_TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final boolean headersEnabled;
+
+    public SqlStatisticsHeaderAdvice(@Value("${shareit.sql-statistics.headers:true}") boolean headersEnabled) {
+        this.headersEnabled = headersEnabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return headersEnabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        // счетчик отсутствует, если учет выключен или запрос прошел мимо SqlStatisticsFilter
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(STATEMENT_COUNT_HEADER, String.valueOf(statistics.getStatementCount()));
+            response.getHeaders().set(ELAPSED_TIME_HEADER, String.valueOf(statistics.getElapsedMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql-statistics")
+public class SqlStatisticsProperties {
+    private boolean enabled = true; // учет SQL-запросов для каждого HTTP-запроса
+    private boolean headers = true; // передача счетчиков в заголовках ответа
+    private int statementBudget = 10; // допустимое число SQL-запросов на один HTTP-запрос
+}
@@ -15,5 +15,7 @@ public interface UserService {
 
     User getUserById(Long userId);
 
+    void checkUserExists(Long userId);
+
     HttpStatus deleteUser(Long userId);
 }
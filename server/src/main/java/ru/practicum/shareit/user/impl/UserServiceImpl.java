@@ -2,8 +2,13 @@ package ru.practicum.shareit.user.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserRepository;
@@ -12,7 +17,6 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
-import javax.transaction.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,8 +24,10 @@ import java.util.Optional;
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
+    public static final String USERS_CACHE = "users"; // кэш пользователей по id
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final CacheManager cacheManager;
 
     // Создание нового пользователя
     public User createUser(UserDto userDto) {
@@ -37,9 +43,12 @@ public class UserServiceImpl implements UserService {
     }
 
     // Обновление пользователя
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
+    @Transactional
     public User updateUser(Long userId, UserDto userDto) {
         User user = userMapper.toUser(userDto);
-        User saved = getUserById(userId);
+        // читаем из базы, а не из кэша, чтобы не изменять закэшированный экземпляр
+        User saved = findUserById(userId);
         if (user.getUserName() != null) {
             saved.setUserName(user.getUserName());
         }
@@ -57,14 +66,33 @@ public class UserServiceImpl implements UserService {
     }
 
     // Получение всех пользователей
-    @Transactional
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         log.info("Получен список пользователей");
         return userRepository.findAll();
     }
 
-    // Получение пользователя по Id
+    // Получение пользователя по Id (результат кэшируется, отсутствующие пользователи не кэшируются)
+    @Cacheable(cacheNames = USERS_CACHE, key = "#userId")
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
+        return findUserById(userId);
+    }
+
+    // Проверка существования пользователя без загрузки сущности:
+    // закэшированный пользователь существует, иначе выполняется запрос только по первичному ключу
+    public void checkUserExists(Long userId) {
+        Cache users = cacheManager.getCache(USERS_CACHE);
+        if (users != null && users.get(userId) != null) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            log.info("Пользователь c id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с указанным id не найден");
+        }
+    }
+
+    private User findUserById(Long userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isPresent()) {
             log.info("Возвращен пользователь с id = {}", userId);
@@ -76,6 +104,7 @@ public class UserServiceImpl implements UserService {
     }
 
     // Удаление пользователя
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
     public HttpStatus deleteUser(Long userId) {
         try {
             userRepository.deleteById(userId);
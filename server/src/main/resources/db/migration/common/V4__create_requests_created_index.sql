@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_requests_requester_created;
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created_id ON requests (requester_id, created DESC, id DESC);
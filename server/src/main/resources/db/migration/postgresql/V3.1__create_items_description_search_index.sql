@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_description_trgm ON items USING GIN (upper(description) gin_trgm_ops) WHERE status = true;
@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_name_trgm ON items USING GIN (upper(name) gin_trgm_ops) WHERE status = true;
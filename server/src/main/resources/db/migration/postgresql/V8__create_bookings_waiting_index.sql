@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date_time) WHERE status = 'WAITING';
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_rejected_start ON bookings (item_id, start_date_time DESC) WHERE status = 'REJECTED';
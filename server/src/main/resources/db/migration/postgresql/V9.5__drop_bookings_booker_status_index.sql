@@ -0,0 +1 @@
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_booker_status_start;
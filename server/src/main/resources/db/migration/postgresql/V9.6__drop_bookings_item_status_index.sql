@@ -0,0 +1 @@
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_item_status_start;
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_waiting_start ON bookings (booker_id, start_date_time DESC) WHERE status = 'WAITING';
@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Методы чтения выполняются в read-only транзакциях: загруженные сущности не проверяются на изменения
+// и сессия не сбрасывается при фиксации. Сессия открывается транзакцией, а не на весь HTTP-запрос
+// (open-in-view выключен), поэтому то же действует и при обработке запросов
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ReadOnlyTransactionTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @SpyBean
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID().toString();
+        owner = userRepository.save(new User("Owner", "owner-" + suffix + "@read-only.ru"));
+        User author = userRepository.save(new User("Author", "author-" + suffix + "@read-only.ru"));
+        itemRequestRepository.save(new ItemRequest(0, "Нужна дрель", owner, LocalDateTime.now()));
+        item = itemRepository.save(new Item("Дрель " + suffix, "Простая дрель", owner, true));
+        Comment comment = new Comment("Хорошая дрель", author, LocalDateTime.now());
+        comment.setItem(item);
+        commentRepository.save(comment);
+        statistics.clear();
+    }
+
+    @Test
+    void readMethods_whenEntitiesLoaded_thenSessionIsNotFlushed() {
+        assertFalse(itemService.getAllItemsUser(owner.getId()).isEmpty());
+        assertFalse(itemService.searchAvailableItems(item.getName()).isEmpty());
+        itemService.getItemWithBooker(item.getItemId(), owner.getId());
+        assertFalse(userService.getAllUsers().isEmpty());
+        bookingService.getAllBookingByOwner(0, 20, owner.getId(), "ALL");
+        assertFalse(itemRequestService.getAllItemRequestOfUser(owner.getId(), 0, 20).isEmpty());
+
+        assertTrue(statistics.getEntityLoadCount() > 0);
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void writeMethod_whenEntityChanged_thenSessionIsFlushed() {
+        itemService.updateItem(owner.getId(), item.getItemId(), new ItemDto(null, "Описание", null, null));
+
+        assertTrue(statistics.getFlushCount() > 0);
+    }
+
+    // Сессия, в которой выполняется запрос к базе, проверяется в момент вызова репозитория
+    @SneakyThrows
+    @Test
+    void readEndpoint_whenCalledOverHttp_thenSessionIsReadOnly() {
+        AtomicBoolean readOnly = new AtomicBoolean();
+        doAnswer(invocation -> {
+            readOnly.set(entityManager.unwrap(Session.class).isDefaultReadOnly());
+            return List.of();
+        }).when(userRepository).findAll();
+
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertTrue(readOnly.get());
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.sql.StatementCounter;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingBatchInsertTest {
+    private static final int BOOKINGS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    // вещи и бронирования удаляются каскадно вместе с пользователями
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllByIdInBatch(userIds);
+    }
+
+    @Test
+    void saveAll_whenManyBookings_thenInsertedInBatches() {
+        User owner = userRepository.save(new User("Owner", "owner@batch-insert.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@batch-insert.ru"));
+        userIds.addAll(List.of(owner.getId(), booker.getId()));
+        Item item = itemRepository.save(new Item("Дрель", "Простая дрель", owner, true));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new Booking(item, booker, start.plusHours(i), start.plusHours(i + 1), Status.WAITING));
+        }
+
+        StatementCounter.Counted<List<Booking>> saved = StatementCounter.count(
+                () -> bookingRepository.saveAll(bookings));
+        List<Long> bookingIds = saved.getResult().stream().map(Booking::getBookingId).collect(Collectors.toList());
+
+        assertEquals(BOOKINGS, bookingRepository.findAllById(bookingIds).size());
+        // по одному обращению к последовательности и одной пакетной вставке на каждые 50 бронирований
+        assertTrue(saved.getStatementCount() <= 2 * (BOOKINGS / BATCH_SIZE + 1),
+                "Выполнено SQL-запросов: " + saved.getStatementCount());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Бронирование, отмененное без подтверждения, нельзя подтвердить ни по одному, ни списком
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingCanceledApproveTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NOT_WAITING_MESSAGE = "Изменить статус можно только у бронирования, " +
+            "ожидающего подтверждения";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private Booking canceled;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        owner = userRepository.save(new User("Owner", "owner-" + suffix + "@canceled.ru"));
+        User booker = userRepository.save(new User("Booker", "booker-" + suffix + "@canceled.ru"));
+        Item item = itemRepository.save(new Item("Дрель", "Простая дрель", owner, true));
+        canceled = bookingRepository.save(new Booking(item, booker, start, start.plusDays(1), Status.CANCELED));
+    }
+
+    @SneakyThrows
+    @Test
+    void setApprovedByOwner_whenBookingCanceled_thenBadRequest() {
+        mockMvc.perform(patch("/bookings/{bookingId}", canceled.getBookingId())
+                        .header(USER_HEADER, owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(Status.CANCELED, bookingRepository.findById(canceled.getBookingId()).orElseThrow().getStatus());
+    }
+
+    @SneakyThrows
+    @Test
+    void setApprovedByOwner_whenListContainsCanceledBooking_thenErrorForIt() {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, owner.getId())
+                        .param("approved", "true")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(canceled.getBookingId())))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CANCELED"))
+                .andExpect(jsonPath("$[0].error").value(NOT_WAITING_MESSAGE));
+
+        assertEquals(Status.CANCELED, bookingRepository.findById(canceled.getBookingId()).orElseThrow().getStatus());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
 import ru.practicum.shareit.booking.dto.BookingDtoWithItemMapper;
@@ -17,6 +18,7 @@ import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDtoForBooking;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDtoForBooking;
 
 import java.nio.charset.StandardCharsets;
@@ -28,6 +30,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -243,4 +247,42 @@ class BookingControllerTest {
 
         verify(bookingService).getAllBookingByOwner(from, size, owner.getId(), state);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllBookingByOwner_whenCursorGiven_thenReturnPageWithNextCursor() {
+        BookingDtoWithItem bookingDtoWithItem = new BookingDtoWithItem(1L, item, booker, start, end, Status.WAITING);
+
+        when(bookingService.getBookingPageByOwner(1L, "ALL", "", 1))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoWithItem), "next"));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(bookingService, never()).getAllBookingByOwner(anyInt(), anyInt(), anyLong(), anyString());
+    }
+
+    @SneakyThrows
+    @Test
+    void setApprovedByOwner_whenListOfBookings_thenReturnResultPerBooking() {
+        List<BookingBatchResultDto> results = List.of(new BookingBatchResultDto(1L, Status.APPROVED, null),
+                new BookingBatchResultDto(2L, null, "Бронирование не найдено"));
+        when(bookingService.setApprovedByOwner(1L, List.of(1L, 2L), true)).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("approved", "true")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].error").value("Бронирование не найдено"));
+    }
+}
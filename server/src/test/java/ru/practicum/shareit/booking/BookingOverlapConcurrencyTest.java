@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Одновременное подтверждение пересекающихся бронирований одной вещи: подтвержденные периоды не пересекаются
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-overlap;LOCK_TIMEOUT=30000")
+class BookingOverlapConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void setApprovedByOwner_whenApprovedConcurrently_thenApprovedBookingsDoNotOverlap() throws Exception {
+        User owner = userRepository.save(new User("Owner", "owner@overlap.ru"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User("Booker" + i, "booker" + i + "@overlap.ru")));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Long> bookingIds = new ArrayList<>();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // в каждом раунде своя вещь и бронирования, пересекающиеся друг с другом попарно
+                Item item = itemRepository.save(new Item("Дрель " + round, "Простая дрель", owner, true));
+                List<Long> roundIds = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    BookingDto bookingDto = new BookingDto();
+                    bookingDto.setItemId(item.getItemId());
+                    bookingDto.setStart(base.plusMinutes(i));
+                    bookingDto.setEnd(base.plusHours(2).plusMinutes(i));
+                    roundIds.add(bookingService.createBooking(bookers.get(i).getId(), bookingDto).getBookingId());
+                }
+                bookingIds.addAll(roundIds);
+                approveConcurrently(executor, owner.getId(), roundIds, conflicts);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<Long, List<Booking>> approvedByItem = bookingRepository.findAllById(bookingIds).stream()
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getItemId()));
+        assertEquals(ROUNDS, approvedByItem.size());
+        approvedByItem.forEach((itemId, approved) ->
+                assertEquals(1, approved.size(), "Подтверждены пересекающиеся бронирования вещи " + itemId));
+        assertEquals(ROUNDS * (THREADS - 1), conflicts.get());
+    }
+
+    private void approveConcurrently(ExecutorService executor, long ownerId, List<Long> bookingIds,
+                                     AtomicInteger conflicts) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(bookingIds.size());
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit((Callable<Void>) () -> {
+                barrier.await();
+                try {
+                    bookingService.setApprovedByOwner(ownerId, bookingId, true);
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+    }
+}
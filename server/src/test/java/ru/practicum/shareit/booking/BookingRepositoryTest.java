@@ -6,7 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
+import ru.practicum.shareit.booking.dto.BookingLastNextProjection;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusProjection;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -15,17 +19,22 @@ import ru.practicum.shareit.user.model.User;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @Transactional
 class BookingRepositoryTest {
 
     Long bookingId;
+    Long lastBookingId;
+    Long nextBookingId;
     User user;
     User user1;
     Long itemId;
@@ -39,7 +48,7 @@ class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
 
-    private LocalDateTime time = LocalDateTime.now();
+    private LocalDateTime time = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // точность TIMESTAMP в базе
 
     @BeforeEach
     private void addSourceData() {
@@ -102,6 +111,7 @@ class BookingRepositoryTest {
                 time.plusMinutes(40L),
                 Status.APPROVED
         ));
+        nextBookingId = booking2.getBookingId();
 
         Booking booking3 = bookingRepository.save(new Booking(
                 item2L,
@@ -110,6 +120,7 @@ class BookingRepositoryTest {
                 time.plusMinutes(10L),
                 Status.WAITING
         ));
+        lastBookingId = booking3.getBookingId();
 
         Booking booking4 = bookingRepository.save(new Booking(
                 item2L,
@@ -122,35 +133,118 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllBookingsForBookerWithStartAndEndTest() {
-        User user = userRepository.getReferenceById(user1.getId());
-        LocalDateTime start = time.plusMinutes(-10L);
-        LocalDateTime end = time.plusMinutes(10L);
+    void findBookingDtosForCurrentBookerTest() {
         PageRequest pageRequest = PageRequest.of(0, 10);
-        List<Booking> listOfBooking = bookingRepository.findAllBookingsForBooker_IdWithStartAndEnd(user.getId(), start, end, pageRequest);
+        List<BookingDtoWithItem> bookings = bookingRepository
+                .findBookingDtos(user1.getId(), null, State.CURRENT, time, pageRequest);
 
-        assertEquals(1, listOfBooking.size());
+        assertEquals(1, bookings.size());
+        assertEquals("Telephone", bookings.get(0).getItem().getName());
+        assertEquals(user1.getId(), (long) bookings.get(0).getBooker().getId());
+        assertEquals(Status.WAITING, bookings.get(0).getStatus());
     }
 
     @Test
-    void findAllByItem_OwnerAndEndIsBeforeOrderByStartDescTest() {
+    void findBookingDtosForPastOwnerTest() {
         LocalDateTime now = time.plusMinutes(5L);
         PageRequest pageRequest = PageRequest.of(0, 10);
-        List<Booking> listOfBooking = bookingRepository
-                .findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(user, now, pageRequest);
+        List<BookingDtoWithItem> bookings = bookingRepository
+                .findBookingDtos(null, user.getId(), State.PAST, now, pageRequest);
 
-        assertFalse(listOfBooking.isEmpty());
-        assertEquals(1, listOfBooking.size());
+        assertEquals(1, bookings.size());
+        assertEquals(bookingId, bookings.get(0).getId());
+        assertEquals(itemId, bookings.get(0).getItem().getId());
     }
 
     @Test
-    void findAllByItemOrderByStartDescTest() {
-        Optional<Item> item = itemRepository.findById(itemId);
-        List<Booking> listOfBooking = bookingRepository.findAllByItemOrderByStartDesc(item.get());
+    void findBookingDtosForRejectedBookerTest() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<BookingDtoWithItem> bookings = bookingRepository
+                .findBookingDtos(user1.getId(), null, State.REJECTED, time, pageRequest);
 
-        assertFalse(listOfBooking.isEmpty());
-        assertEquals(3, listOfBooking.size());
-        assertEquals("Camera", listOfBooking.get(0).getItem().getName());
+        assertEquals(1, bookings.size());
+        assertEquals(bookingId, bookings.get(0).getId());
+        assertEquals("Camera", bookings.get(0).getItem().getName());
+    }
+
+    @Test
+    void findBookingDtosPagedByStartDescTest() {
+        List<BookingDtoWithItem> bookings = bookingRepository
+                .findBookingDtos(user1.getId(), null, State.ALL, time, PageRequest.of(0, 10));
+        List<BookingDtoWithItem> secondPage = bookingRepository
+                .findBookingDtos(user1.getId(), null, State.ALL, time, PageRequest.of(1, 2));
+
+        assertEquals(3, bookings.size());
+        assertEquals(nextBookingId, bookings.get(0).getId());
+        assertEquals(bookingId, bookings.get(2).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(bookingId, secondPage.get(0).getId());
+    }
+
+    @Test
+    void findBookingDtosMatchesCursorPageForEveryRoleAndStateTest() {
+        for (State state : State.values()) {
+            List<Long> asBooker = bookingRepository
+                    .findBookingDtos(user1.getId(), null, state, time, PageRequest.of(0, 10)).stream()
+                    .map(BookingDtoWithItem::getId).collect(Collectors.toList());
+            List<Long> asOwner = bookingRepository
+                    .findBookingDtos(null, user.getId(), state, time, PageRequest.of(0, 10)).stream()
+                    .map(BookingDtoWithItem::getId).collect(Collectors.toList());
+
+            assertEquals(bookingRepository.findBookingDtosAfter(user1.getId(), null, state, time, null, null, 10)
+                    .stream().map(BookingDtoWithItem::getId).collect(Collectors.toList()), asBooker);
+            assertEquals(bookingRepository.findBookingDtosAfter(null, user.getId(), state, time, null, null, 10)
+                    .stream().map(BookingDtoWithItem::getId).collect(Collectors.toList()), asOwner);
+        }
+    }
+
+    @Test
+    void findOwnerAndStatusByIdsTest() {
+        List<BookingOwnerStatusProjection> bookings = bookingRepository
+                .findOwnerAndStatusByIds(List.of(bookingId, Long.MAX_VALUE));
+
+        assertEquals(1, bookings.size());
+        assertEquals(bookingId, bookings.get(0).getId());
+        assertEquals(user.getId(), bookings.get(0).getOwnerId());
+        assertEquals(Status.REJECTED, bookings.get(0).getStatus());
+    }
+
+    @Test
+    void existsOverlappingTest() {
+        // подтвержденное бронирование вещи: [time + 15, time + 40)
+        assertTrue(bookingRepository.existsOverlapping(itemId, time.plusMinutes(30L), time.plusMinutes(60L),
+                Status.APPROVED, 0));
+        assertFalse(bookingRepository.existsOverlapping(itemId, time.plusMinutes(40L), time.plusMinutes(60L),
+                Status.APPROVED, 0));
+        assertFalse(bookingRepository.existsOverlapping(itemId, time.plusMinutes(30L), time.plusMinutes(60L),
+                Status.APPROVED, nextBookingId));
+    }
+
+    @Test
+    void updateStatusByIdsAndStatusTest() {
+        int updated = bookingRepository.updateStatusByIdsAndStatus(List.of(lastBookingId, nextBookingId),
+                Status.WAITING, Status.APPROVED);
+
+        assertEquals(1, updated);
+        assertEquals(Status.APPROVED, bookingRepository.findById(lastBookingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void findIdsByStatusAndStartBeforeAndExpireTest() {
+        List<Long> waitingIds = bookingRepository
+                .findIdsByStatusAndStartBefore(Status.WAITING, time, PageRequest.of(0, 10));
+        List<Long> oldest = bookingRepository
+                .findIdsByStatusAndStartBefore(Status.WAITING, time, PageRequest.of(0, 1));
+        bookingRepository.updateStatusByIdsAndStatus(List.of(lastBookingId), Status.WAITING, Status.APPROVED);
+
+        int updated = bookingRepository.updateStatusByIdsAndStatus(waitingIds, Status.WAITING, Status.CANCELED);
+
+        assertEquals(2, waitingIds.size());
+        assertEquals(lastBookingId, waitingIds.get(1));
+        assertEquals(List.of(waitingIds.get(0)), oldest);
+        assertEquals(1, updated);
+        assertEquals(Status.CANCELED, bookingRepository.findById(waitingIds.get(0)).orElseThrow().getStatus());
+        assertEquals(Status.APPROVED, bookingRepository.findById(lastBookingId).orElseThrow().getStatus());
     }
 
     @Test
@@ -164,6 +258,53 @@ class BookingRepositoryTest {
         assertEquals(1, listOfBooking.size());
     }
 
+    @Test
+    void findLastAndNextBookingsOfItemsTest() {
+        List<String> statuses = List.of(Status.APPROVED.name(), Status.WAITING.name());
+
+        List<BookingLastNextProjection> lastBookings = bookingRepository
+                .findLastBookingsOfItems(List.of(itemId), time, statuses);
+        List<BookingLastNextProjection> nextBookings = bookingRepository
+                .findNextBookingsOfItems(List.of(itemId), time, statuses);
+
+        // отклоненное бронирование не учитывается, последним считается начавшееся ожидающее бронирование
+        assertEquals(1, lastBookings.size());
+        assertEquals(lastBookingId, lastBookings.get(0).getId());
+        assertEquals(user.getId(), lastBookings.get(0).getBookerId());
+        assertEquals(itemId, lastBookings.get(0).getItemId());
+        assertEquals(1, nextBookings.size());
+        assertEquals(nextBookingId, nextBookings.get(0).getId());
+        assertEquals(user1.getId(), nextBookings.get(0).getBookerId());
+    }
+
+    // Вторая страница продолжается после последнего бронирования первой страницы, без пропуска и повторов
+    @Test
+    void findBookingDtosAfterTest() {
+        List<BookingDtoWithItem> firstPage = bookingRepository
+                .findBookingDtosAfter(user1.getId(), null, State.ALL, time, null, null, 2);
+        BookingDtoWithItem last = firstPage.get(1);
+        List<BookingDtoWithItem> secondPage = bookingRepository
+                .findBookingDtosAfter(user1.getId(), null, State.ALL, time, last.getStart(), last.getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(nextBookingId, firstPage.get(0).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(bookingId, secondPage.get(0).getId());
+    }
+
+    @Test
+    void findBookingDtosAfterForOwnerWithStateTest() {
+        List<BookingDtoWithItem> waiting = bookingRepository
+                .findBookingDtosAfter(null, user.getId(), State.WAITING, time, null, null, 10);
+        List<BookingDtoWithItem> future = bookingRepository
+                .findBookingDtosAfter(null, user.getId(), State.FUTURE, time, null, null, 10);
+
+        assertEquals(1, waiting.size());
+        assertEquals(lastBookingId, waiting.get(0).getId());
+        assertEquals(1, future.size());
+        assertEquals(nextBookingId, future.get(0).getId());
+    }
+
     @AfterEach
     private void deleteAllRepository() {
         bookingRepository.deleteAll();
@@ -5,18 +5,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.BookingDtoWithItemMapper;
+import ru.practicum.shareit.booking.dto.BookingDtoWithItem;
+import ru.practicum.shareit.booking.dto.BookingLastNextProjection;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusProjection;
+import ru.practicum.shareit.booking.dto.BookingPeriodProjection;
 import ru.practicum.shareit.booking.impl.BookingServiceImpl;
+import ru.practicum.shareit.booking.impl.ItemOccupancyLoader;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemOccupancy;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
@@ -27,8 +39,13 @@ import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,7 +67,11 @@ class BookingServiceImplTest {
     private BookingMapper bookingMapper;
 
     @Mock
-    private BookingDtoWithItemMapper bookingDtoWithItemMapper;
+    private CacheManager cacheManager;
+
+    @Mock
+    private ItemOccupancyLoader occupancyLoader;
+
 
     @Test
     void createBooking_whenCreateIsSuccess() {
@@ -87,6 +108,23 @@ class BookingServiceImplTest {
                 () -> bookingService.createBooking(booker.getId(), bookingDto));
     }
 
+    @Test
+    void createBooking_whenApprovedBookingOverlaps_thenThrowConflict() {
+        LocalDateTime time = LocalDateTime.now();
+        Item item = new Item(1L, "Name", "About of item", new User(), true);
+        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+        Booking booking = new Booking(1L, item, booker, time.plusMinutes(-10L), time.plusMinutes(10L));
+        when(bookingMapper.toBooking(any(BookingDto.class))).thenReturn(booking);
+        when(userService.getUserById(any(Long.class))).thenReturn(booker);
+        when(itemService.getItemsById(any(Long.class))).thenReturn(item);
+        when(bookingRepository.existsOverlapping(item.getItemId(), booking.getStart(), booking.getEnd(),
+                Status.APPROVED, 0)).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(booker.getId(), new BookingDto()));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void createBooking_whenUserNotFound() {
         LocalDateTime time = LocalDateTime.now();
@@ -126,12 +164,12 @@ class BookingServiceImplTest {
                 LocalDateTime.now().plusMinutes(10L));
         booking.setStatus(Status.WAITING);
 
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         Booking bookingSaved = bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), true);
 
+        verify(itemService).lockItems(List.of(item.getItemId()));
         assertThat(bookingSaved.getBookingId(), equalTo(booking.getBookingId()));
         assertThat(bookingSaved.getItem().getItemId(), equalTo((booking.getItem().getItemId())));
         assertThat(bookingSaved.getBooker().getId(), equalTo(booking.getBooker().getId()));
@@ -140,6 +178,40 @@ class BookingServiceImplTest {
         assertThat(bookingSaved.getStatus(), equalTo(booking.getStatus()));
     }
 
+    @Test
+    void setApprovedByOwner_whenApprovedBookingOverlaps_thenThrowConflict() {
+        User owner = new User(1L, "Name", "user@mail.ru"); // владелиц вещи
+        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+        Item item = new Item(1L, "Name", "About of item", owner, true);
+        Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
+                LocalDateTime.now().plusMinutes(10L));
+        booking.setStatus(Status.WAITING);
+        when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlapping(item.getItemId(), booking.getStart(), booking.getEnd(),
+                Status.APPROVED, booking.getBookingId())).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), true));
+        assertThat(booking.getStatus(), equalTo(Status.WAITING));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void setApprovedByOwner_whenBookingChangedConcurrently_thenThrowConflict() {
+        User owner = new User(1L, "Name", "user@mail.ru"); // владелиц вещи
+        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+        Item item = new Item(1L, "Name", "About of item", owner, true);
+        Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
+                LocalDateTime.now().plusMinutes(10L));
+        booking.setStatus(Status.WAITING);
+        when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getBookingId()));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), false));
+    }
+
     @Test
     void setApprovedByOwner_whenApproved_thenThrow() {
         User owner = new User(1L, "Name", "user@mail.ru"); // владелиц вещи
@@ -148,7 +220,6 @@ class BookingServiceImplTest {
         Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
                 LocalDateTime.now().plusMinutes(10L));
         booking.setStatus(Status.REJECTED);
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
 
         assertThrows(ValidationException.class,
@@ -163,9 +234,8 @@ class BookingServiceImplTest {
         Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
                 LocalDateTime.now().plusMinutes(10L));
         booking.setStatus(Status.WAITING);
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         Booking bookingSaved = bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), false);
 
@@ -177,6 +247,40 @@ class BookingServiceImplTest {
         assertThat(bookingSaved.getStatus(), equalTo(booking.getStatus()));
     }
 
+    @Test
+    void setApprovedByOwner_whenCanceled_thenThrow() {
+        User owner = new User(1L, "Name", "user@mail.ru"); // владелиц вещи
+        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+        Item item = new Item(1L, "Name", "About of item", owner, true);
+        Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
+                LocalDateTime.now().plusMinutes(10L));
+        booking.setStatus(Status.CANCELED);
+        when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), true));
+        assertThrows(ValidationException.class,
+                () -> bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), false));
+        assertThat(booking.getStatus(), equalTo(Status.CANCELED));
+        verify(itemService, never()).lockItems(any());
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void setApprovedByOwner_whenApprovedAndRejectedByOwner_thenThrow() {
+        User owner = new User(1L, "Name", "user@mail.ru"); // владелиц вещи
+        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+        Item item = new Item(1L, "Name", "About of item", owner, true);
+        Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
+                LocalDateTime.now().plusMinutes(10L));
+        booking.setStatus(Status.APPROVED);
+        when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.setApprovedByOwner(owner.getId(), booking.getBookingId(), false));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
     @Test
     void setApprovedByOwner_whenBookingNotFound_thenThrow() {
         User owner = new User(1L, "Name", "user@mail.ru"); // владелиц вещи
@@ -185,7 +289,6 @@ class BookingServiceImplTest {
         Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
                 LocalDateTime.now().plusMinutes(10L));
         booking.setStatus(Status.REJECTED);
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -200,7 +303,6 @@ class BookingServiceImplTest {
         Booking booking = new Booking(1L, item, booker, LocalDateTime.now().plusMinutes(-10L),
                 LocalDateTime.now().plusMinutes(10L));
         booking.setStatus(Status.APPROVED);
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
         when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(booking));
 
         assertThrows(NotFoundException.class,
@@ -256,113 +358,106 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByUser_whenStateAll() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findBookingsByBooker_IdOrderByStartDesc(any(Long.class), any(PageRequest.class)))
-                .thenReturn(listOfBooking);
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.ALL), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), State.ALL.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, State.ALL.toString());
 
-        verify(bookingRepository, times(1))
-                .findBookingsByBooker_IdOrderByStartDesc(booker.getId(), pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.ALL), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByUser_whenStateEmpty() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findBookingsByBooker_IdOrderByStartDesc(any(Long.class), any(PageRequest.class)))
-                .thenReturn(listOfBooking);
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.ALL), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), "");
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, "");
 
-        verify(bookingRepository, times(1))
-                .findBookingsByBooker_IdOrderByStartDesc(booker.getId(), pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.ALL), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByUser_whenStateCURRENT() {
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findAllBookingsForBooker_IdWithStartAndEnd(any(Long.class), any(LocalDateTime.class),
-                any(LocalDateTime.class), any(PageRequest.class))).thenReturn(listOfBooking);
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.CURRENT), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), State.CURRENT.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, State.CURRENT.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllBookingsForBooker_IdWithStartAndEnd(any(Long.class), any(LocalDateTime.class),
-                        any(LocalDateTime.class), any(PageRequest.class));
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.CURRENT), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByUser_whenStatePAST() {
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(any(Long.class),
-                any(LocalDateTime.class), any(PageRequest.class))).thenReturn(listOfBooking);
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.PAST), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), State.PAST.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, State.PAST.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(any(Long.class),
-                        any(LocalDateTime.class), any(PageRequest.class));
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.PAST), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByUser_whenStateFUTURE() {
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findAllByBooker_IdAndStartIsAfterOrderByStartDesc(any(Long.class),
-                any(LocalDateTime.class), any(PageRequest.class))).thenReturn(listOfBooking);
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.FUTURE), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), State.FUTURE.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, State.FUTURE.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByBooker_IdAndStartIsAfterOrderByStartDesc(any(Long.class),
-                        any(LocalDateTime.class), any(PageRequest.class));
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.FUTURE), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByUser_whenStateWAITING() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.WAITING));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.WAITING), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(any(Long.class),
-                any(Status.class), any(PageRequest.class))).thenReturn(listOfBooking);
-
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), State.WAITING.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, State.WAITING.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByBooker_IdAndStatusOrderByStartDesc(booker.getId(), Status.WAITING, pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.WAITING), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByUser_whenStateREJECTED() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(booker);
-        when(bookingRepository.findAllByBooker_IdAndStatusOrderByStartDesc(any(Long.class),
-                any(Status.class), any(PageRequest.class))).thenReturn(listOfBooking);
+        long bookerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.REJECTED));
+        when(bookingRepository.findBookingDtos(any(Long.class), eq(null), eq(State.REJECTED), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByUser(0, 20, booker.getId(), State.REJECTED.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByUser(0, 20, bookerId, State.REJECTED.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByBooker_IdAndStatusOrderByStartDesc(booker.getId(), Status.REJECTED, pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(bookerId), eq(null), eq(State.REJECTED), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
@@ -375,6 +470,15 @@ class BookingServiceImplTest {
                 () -> bookingService.getAllBookingByUser(form, size, user.getId(), State.ALL.toString()));
     }
 
+    @Test
+    void getAllBookingByUser_whenSizeZero() {
+        User user = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingByUser(0, 0, user.getId(), State.ALL.toString()));
+        verify(bookingRepository, never()).findBookingDtos(any(), any(), any(), any(), any());
+    }
+
     @Test
     void getAllBookingByUser_whenNotKnowState() {
         int form = 1;
@@ -386,120 +490,142 @@ class BookingServiceImplTest {
     }
 
 
+    @Test
+    void getBookingPageByUser_whenPageIsFull_thenNextPageSeeksAfterLastBooking() {
+        LocalDateTime time = LocalDateTime.now();
+        User booker = new User(2L, "Name2", "mail@mail.ru"); // арендатор
+        BookingDtoWithItem first = new BookingDtoWithItem(5L, 1L, "Item", booker.getId(), time.plusDays(2),
+                time.plusDays(3), Status.WAITING);
+        BookingDtoWithItem second = new BookingDtoWithItem(3L, 1L, "Item", booker.getId(), time.plusDays(1),
+                time.plusDays(2), Status.WAITING);
+        BookingDtoWithItem third = new BookingDtoWithItem(4L, 1L, "Item", booker.getId(), time.minusDays(1),
+                time, Status.WAITING);
+
+        when(bookingRepository.findBookingDtosAfter(eq(booker.getId()), eq(null), eq(State.FUTURE),
+                any(LocalDateTime.class), eq(null), eq(null), eq(2)))
+                .thenReturn(List.of(first, second));
+        when(bookingRepository.findBookingDtosAfter(eq(booker.getId()), eq(null), eq(State.FUTURE),
+                any(LocalDateTime.class), eq(second.getStart()), eq(second.getId()), eq(2)))
+                .thenReturn(List.of(third));
+
+        CursorPage<BookingDtoWithItem> firstPage = bookingService.getBookingPageByUser(booker.getId(), "future", "", 2);
+        CursorPage<BookingDtoWithItem> secondPage = bookingService
+                .getBookingPageByUser(booker.getId(), "future", firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getContent(), equalTo(List.of(first, second)));
+        assertThat(secondPage.getContent(), equalTo(List.of(third)));
+        assertThat(secondPage.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void getBookingPageByOwner_whenCursorIsMalformed_thenValidationExceptionThrown() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingPageByOwner(1L, "ALL", "bm90LWEtZGF0ZTsx", 2));
+    }
+
     @Test
     void getAllBookingByOwner_whenStateALL() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerOrderByStartDesc(any(User.class), any(PageRequest.class)))
-                .thenReturn(listOfBooking);
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.ALL), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), State.ALL.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, State.ALL.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerOrderByStartDesc(owner, pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.ALL), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByOwner_whenStateEmpty() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerOrderByStartDesc(any(User.class), any(PageRequest.class)))
-                .thenReturn(listOfBooking);
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.ALL), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), "");
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, "");
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerOrderByStartDesc(owner, pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.ALL), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByOwner_whenStateCURRENT() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-        LocalDateTime time = LocalDateTime.now();
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.CURRENT), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerAndStartBeforeAndEndAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(listOfBooking);
-
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), State.CURRENT.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, State.CURRENT.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerAndStartBeforeAndEndAfterOrderByStartDesc(any(User.class),
-                        any(LocalDateTime.class), any(LocalDateTime.class), any(PageRequest.class));
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.CURRENT), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByOwner_whenStatePAST() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.PAST), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(any(User.class), any(LocalDateTime.class),
-                any(PageRequest.class))).thenReturn(listOfBooking);
-
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), State.PAST.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, State.PAST.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
-                        any(LocalDateTime.class), any(PageRequest.class));
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.PAST), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByOwner_whenStateFUTURE() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(any(User.class), any(LocalDateTime.class),
-                any(PageRequest.class))).thenReturn(listOfBooking);
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.APPROVED));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.FUTURE), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), State.FUTURE.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, State.FUTURE.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(any(User.class),
-                        any(LocalDateTime.class), any(PageRequest.class));
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.FUTURE), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByOwner_whenStateWAITING() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerAndStatusOrderByStartDesc(any(User.class), any(Status.class),
-                any(PageRequest.class))).thenReturn(listOfBooking);
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.WAITING));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.WAITING), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), State.WAITING.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, State.WAITING.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerAndStatusOrderByStartDesc(owner, Status.WAITING, pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.WAITING), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
     void getAllBookingByOwner_whenStateREJECTED() {
         PageRequest pageRequest = PageRequest.of(0, 20);
-        User owner = new User(2L, "Name2", "mail@mail.ru"); // арендатор
-        List<Booking> listOfBooking = new ArrayList<>();
-
-        when(userService.getUserById(any(Long.class))).thenReturn(owner);
-        when(bookingRepository.findAllByItem_OwnerAndStatusOrderByStartDesc(any(User.class), any(Status.class),
-                any(PageRequest.class))).thenReturn(listOfBooking);
+        long ownerId = 2L;
+        List<BookingDtoWithItem> bookings = List.of(new BookingDtoWithItem(1L, 1L, "Name", 3L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.REJECTED));
+        when(bookingRepository.findBookingDtos(eq(null), any(Long.class), eq(State.REJECTED), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(bookings);
 
-        bookingService.getAllBookingByOwner(0, 20, owner.getId(), State.REJECTED.toString());
+        List<BookingDtoWithItem> result = bookingService.getAllBookingByOwner(0, 20, ownerId, State.REJECTED.toString());
 
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerAndStatusOrderByStartDesc(owner, Status.REJECTED, pageRequest);
+        assertThat(result, equalTo(bookings));
+        verify(bookingRepository, times(1)).findBookingDtos(eq(null), eq(ownerId), eq(State.REJECTED), any(LocalDateTime.class), eq(pageRequest));
     }
 
     @Test
@@ -512,6 +638,15 @@ class BookingServiceImplTest {
                 () -> bookingService.getAllBookingByOwner(form, size, user.getId(), State.ALL.toString()));
     }
 
+    @Test
+    void getAllBookingByOwner_whenSizeNegative() {
+        User user = new User(2L, "Name2", "mail@mail.ru"); // владелец
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingByOwner(0, -1, user.getId(), State.ALL.toString()));
+        verify(bookingRepository, never()).findBookingDtos(any(), any(), any(), any(), any());
+    }
+
     @Test
     void getAllBookingByOwner_whenNotKnowState() {
         int form = 1;
@@ -523,18 +658,51 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void getAllBookingByUser_ReturnItem() {
-        User owner = new User(1L, "Name", "user@mail.ru");
-        Item item = new Item(1L, "Name", "About of item", owner, true);
-        List<Booking> listOfBooking = new ArrayList<>();
+    void getLastBookingsOfItems_whenItemsGiven_thenQueryRepository() {
+        List<Long> itemIds = List.of(1L, 2L);
+        LocalDateTime time = LocalDateTime.now();
 
-        when(bookingRepository.findAllByItemOrderByStartDesc(any(Item.class))).thenReturn(listOfBooking);
+        when(bookingRepository.findLastBookingsOfItems(eq(itemIds), eq(time), anyCollection()))
+                .thenReturn(new ArrayList<>());
 
-        List<Booking> listOfBookingSaved = bookingService.getAllBookingByUser(item);
+        bookingService.getLastBookingsOfItems(itemIds, time);
 
-        assertThat(listOfBookingSaved.size(), equalTo(listOfBooking.size()));
         verify(bookingRepository, times(1))
-                .findAllByItemOrderByStartDesc(item);
+                .findLastBookingsOfItems(itemIds, time, List.of(Status.APPROVED.name(), Status.WAITING.name()));
+    }
+
+    @Test
+    void getNextBookingsOfItems_whenNoItems_thenRepositoryNotCalled() {
+        List<BookingLastNextProjection> bookings = bookingService.getNextBookingsOfItems(List.of(), LocalDateTime.now());
+
+        assertThat(bookings.size(), equalTo(0));
+        verify(bookingRepository, never()).findNextBookingsOfItems(anyCollection(), any(LocalDateTime.class),
+                anyCollection());
+    }
+
+    @Test
+    void expireWaitingBookings_whenStaleBookingsFound_thenCanceledIfStillWaiting() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findIdsByStatusAndStartBefore(Status.WAITING, now, PageRequest.of(0, 3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(bookingRepository.updateStatusByIdsAndStatus(List.of(1L, 2L, 3L), Status.WAITING, Status.CANCELED))
+                .thenReturn(2);
+
+        int expired = bookingService.expireWaitingBookings(now, 3);
+
+        assertThat(expired, equalTo(2));
+    }
+
+    @Test
+    void expireWaitingBookings_whenNothingFound_thenNoUpdate() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findIdsByStatusAndStartBefore(Status.WAITING, now, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+
+        int expired = bookingService.expireWaitingBookings(now, 3);
+
+        assertThat(expired, equalTo(0));
+        verify(bookingRepository, never()).updateStatusByIdsAndStatus(any(), any(), any());
     }
 
     @Test
@@ -553,4 +721,184 @@ class BookingServiceImplTest {
         verify(bookingRepository, times(1))
                 .findByBookingByItemAndBookerAndEndBefore(item, owner, time);
     }
-}
\ No newline at end of file
+
+    @Test
+    void setApprovedByOwner_whenListOfBookings_thenOnlyOwnedAndChangeableUpdated() {
+        long ownerId = 1L;
+        when(bookingRepository.findOwnerAndStatusByIds(any())).thenReturn(List.of(
+                ownerStatus(10L, ownerId, Status.WAITING),
+                ownerStatus(11L, ownerId, Status.APPROVED),
+                ownerStatus(12L, 2L, Status.WAITING)));
+        when(bookingRepository.updateStatusByIdsAndStatus(List.of(10L), Status.WAITING, Status.APPROVED))
+                .thenReturn(1);
+
+        List<BookingBatchResultDto> results = bookingService
+                .setApprovedByOwner(ownerId, List.of(10L, 11L, 12L, 13L, 10L), true);
+
+        verify(userService).checkUserExists(ownerId);
+        verify(bookingRepository).updateStatusByIdsAndStatus(List.of(10L), Status.WAITING, Status.APPROVED);
+        assertEquals(4, results.size());
+        assertThat(results.get(0).getStatus(), equalTo(Status.APPROVED));
+        assertThat(results.get(0).getError(), nullValue());
+        assertEquals("Бронирование уже подтверждено, при необходимости можно отменить его", results.get(1).getError());
+        assertEquals("Забронированная вещь не принадлежит пользователю, желающему внести изменения",
+                results.get(2).getError());
+        assertEquals(13L, results.get(3).getBookingId());
+        assertEquals("Бронирование не найдено", results.get(3).getError());
+    }
+
+    @Test
+    void setApprovedByOwner_whenListOfBookingsOverlap_thenOnlyFirstApproved() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        BookingOwnerStatusProjection approvedBefore = period(20L, 1L, Status.APPROVED, 1L, start, start.plusHours(2));
+        BookingOwnerStatusProjection overlapsApproved = period(21L, 1L, Status.WAITING, 1L,
+                start.plusHours(1), start.plusHours(3));
+        BookingOwnerStatusProjection first = period(22L, 1L, Status.WAITING, 1L,
+                start.plusHours(5), start.plusHours(7));
+        BookingOwnerStatusProjection overlapsFirst = period(23L, 1L, Status.WAITING, 1L,
+                start.plusHours(6), start.plusHours(8));
+        BookingOwnerStatusProjection adjacent = period(24L, 1L, Status.WAITING, 1L,
+                start.plusHours(7), start.plusHours(9));
+        when(bookingRepository.findOwnerAndStatusByIds(any()))
+                .thenReturn(List.of(overlapsApproved, first, overlapsFirst, adjacent));
+        when(bookingRepository.findOverlapping(any(), eq(start.plusHours(1)), eq(start.plusHours(9)),
+                eq(Status.APPROVED))).thenReturn(List.of(approvedBefore));
+        when(bookingRepository.updateStatusByIdsAndStatus(List.of(22L, 24L), Status.WAITING, Status.APPROVED))
+                .thenReturn(2);
+
+        List<BookingBatchResultDto> results = bookingService
+                .setApprovedByOwner(1L, List.of(21L, 22L, 23L, 24L), true);
+
+        verify(itemService).lockItems(anyCollection());
+        verify(bookingRepository).updateStatusByIdsAndStatus(List.of(22L, 24L), Status.WAITING, Status.APPROVED);
+        assertEquals("Вещь уже забронирована на указанное время", results.get(0).getError());
+        assertThat(results.get(1).getError(), nullValue());
+        assertEquals("Вещь уже забронирована на указанное время", results.get(2).getError());
+        assertThat(results.get(3).getError(), nullValue());
+    }
+
+    @Test
+    void setApprovedByOwner_whenNothingToChange_thenUpdateNotExecuted() {
+        when(bookingRepository.findOwnerAndStatusByIds(any()))
+                .thenReturn(List.of(ownerStatus(10L, 1L, Status.REJECTED)));
+
+        List<BookingBatchResultDto> results = bookingService.setApprovedByOwner(1L, List.of(10L), false);
+
+        verify(bookingRepository, never()).updateStatusByIdsAndStatus(any(), any(), any());
+        assertEquals("Бронирование отменено, изменение статуса повторно не возможно", results.get(0).getError());
+    }
+
+    @Test
+    void setApprovedByOwner_whenListOfCanceledAndRejectedBookings_thenNothingApproved() {
+        when(bookingRepository.findOwnerAndStatusByIds(any())).thenReturn(List.of(
+                ownerStatus(10L, 1L, Status.CANCELED),
+                ownerStatus(11L, 1L, Status.REJECTED)));
+
+        List<BookingBatchResultDto> results = bookingService.setApprovedByOwner(1L, List.of(10L, 11L), true);
+
+        verify(itemService, never()).lockItems(anyCollection());
+        verify(bookingRepository, never()).updateStatusByIdsAndStatus(any(), any(), any());
+        assertThat(results.get(0).getStatus(), equalTo(Status.CANCELED));
+        assertEquals("Изменить статус можно только у бронирования, ожидающего подтверждения",
+                results.get(0).getError());
+        assertThat(results.get(1).getStatus(), equalTo(Status.REJECTED));
+        assertEquals("Изменить статус можно только у бронирования, ожидающего подтверждения",
+                results.get(1).getError());
+    }
+
+    @Test
+    void setApprovedByOwner_whenListChangedConcurrently_thenThrowConflict() {
+        when(bookingRepository.findOwnerAndStatusByIds(any())).thenReturn(List.of(
+                ownerStatus(10L, 1L, Status.WAITING),
+                ownerStatus(11L, 1L, Status.WAITING)));
+        when(bookingRepository.updateStatusByIdsAndStatus(List.of(10L, 11L), Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.setApprovedByOwner(1L, List.of(10L, 11L), false));
+    }
+
+    @Test
+    void getItemOccupancy_whenCached_thenNotLoaded() {
+        Cache cache = new ConcurrentMapCache(BookingServiceImpl.OCCUPANCY_CACHE);
+        ItemOccupancy cached = ItemOccupancy.of(List.of());
+        cache.put(1L, cached);
+        when(cacheManager.getCache(BookingServiceImpl.OCCUPANCY_CACHE)).thenReturn(cache);
+
+        assertSame(cached, bookingService.getItemOccupancy(1L));
+        verify(occupancyLoader, never()).load(anyLong());
+    }
+
+    @Test
+    void getItemOccupancy_whenNotCached_thenLoadedAndCached() {
+        Cache cache = new ConcurrentMapCache(BookingServiceImpl.OCCUPANCY_CACHE);
+        ItemOccupancy loaded = ItemOccupancy.of(List.of());
+        when(cacheManager.getCache(BookingServiceImpl.OCCUPANCY_CACHE)).thenReturn(cache);
+        when(occupancyLoader.load(1L)).thenReturn(loaded);
+
+        assertSame(loaded, bookingService.getItemOccupancy(1L));
+        assertSame(loaded, cache.get(1L, ItemOccupancy.class));
+    }
+
+    @Test
+    void loadItemOccupancy_whenItemHasApprovedBookings_thenOverlappingPeriodsMerged() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<BookingPeriodProjection> periods = List.of(
+                period(1L, 1L, Status.APPROVED, 1L, start, start.plusHours(2)),
+                period(2L, 1L, Status.APPROVED, 1L, start.plusHours(1), start.plusHours(3)));
+        when(bookingRepository.findPeriodsByItem(1L, Status.APPROVED)).thenReturn(periods);
+
+        ItemOccupancy occupancy = new ItemOccupancyLoader(itemService, bookingRepository).load(1L);
+
+        verify(itemService).getItemsById(1L);
+        assertEquals(1, occupancy.size());
+    }
+
+    @Test
+    void loadItemOccupancy_whenItemNotFound_thenThrow() {
+        when(itemService.getItemsById(1L)).thenThrow(NotFoundException.class);
+
+        assertThrows(NotFoundException.class, () -> new ItemOccupancyLoader(itemService, bookingRepository).load(1L));
+        verify(bookingRepository, never()).findPeriodsByItem(anyLong(), any());
+    }
+
+    private static BookingOwnerStatusProjection ownerStatus(long id, long ownerId, Status status) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0).plusDays(id);
+        return period(id, ownerId, status, 1L, start, start.plusHours(1));
+    }
+
+    private static BookingOwnerStatusProjection period(long id, long ownerId, Status status, long itemId,
+                                                       LocalDateTime start, LocalDateTime end) {
+        return new BookingOwnerStatusProjection() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
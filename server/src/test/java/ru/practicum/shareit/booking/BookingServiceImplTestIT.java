@@ -172,7 +172,7 @@ class BookingServiceImplTestIT {
                 Status.WAITING); // создаем бронирование 3
         bookingService.createBooking(savedUser2.getId(), bookingDto3);
 
-        List<Booking> listBookingOfOwner = bookingService.getAllBookingByOwner(0, 20, savedUser1.getId(), "ALL");
+        List<BookingDtoWithItem> listBookingOfOwner = bookingService.getAllBookingByOwner(0, 20, savedUser1.getId(), "ALL");
 
         assertFalse(listBookingOfOwner.isEmpty());
         assertEquals(listBookingOfOwner.size(), 3);
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Одновременное изменение статуса одного бронирования: каждое успешное изменение видно в версии,
+// остальные запросы получают конфликт или ошибку повторного изменения
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-status;LOCK_TIMEOUT=30000")
+class BookingStatusConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void setApprovedByOwner_whenRejectedConcurrently_thenOnlyOneRequestSucceeds() throws Exception {
+        User owner = userRepository.save(new User("Owner", "owner@reject-race.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@reject-race.ru"));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long bookingId = createBooking(owner, booker, round);
+                AtomicInteger succeeded = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+
+                changeConcurrently(executor, owner.getId(), bookingId, i -> false, succeeded, rejected);
+
+                Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                assertEquals(1, succeeded.get());
+                assertEquals(THREADS - 1, rejected.get());
+                assertEquals(Status.REJECTED, booking.getStatus());
+                assertEquals(1, booking.getVersion());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void setApprovedByOwner_whenApprovedAndRejectedConcurrently_thenNoUpdateIsLost() throws Exception {
+        User owner = userRepository.save(new User("Owner", "owner@mixed-race.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@mixed-race.ru"));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long bookingId = createBooking(owner, booker, round);
+                AtomicInteger succeeded = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+
+                changeConcurrently(executor, owner.getId(), bookingId, i -> i % 2 == 0, succeeded, rejected);
+
+                // каждое успешное изменение статуса увеличивает версию ровно на единицу
+                Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                assertEquals(THREADS, succeeded.get() + rejected.get());
+                assertEquals(succeeded.get(), booking.getVersion());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long createBooking(User owner, User booker, int round) {
+        // в каждом раунде своя вещь, чтобы подтверждения разных раундов не пересекались
+        Item item = itemRepository.save(new Item("Дрель " + round, "Простая дрель", owner, true));
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(item.getItemId());
+        bookingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingDto.setEnd(LocalDateTime.now().plusDays(2));
+        return bookingService.createBooking(booker.getId(), bookingDto).getBookingId();
+    }
+
+    private void changeConcurrently(ExecutorService executor, long ownerId, long bookingId,
+                                    IntPredicate approved, AtomicInteger succeeded,
+                                    AtomicInteger rejected) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = approved.test(i);
+            futures.add(executor.submit((Callable<Void>) () -> {
+                barrier.await();
+                try {
+                    bookingService.setApprovedByOwner(ownerId, bookingId, approve);
+                    succeeded.incrementAndGet();
+                } catch (ConflictException | ValidationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+    }
+}
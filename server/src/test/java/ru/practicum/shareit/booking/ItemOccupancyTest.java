@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingPeriodProjection;
+import ru.practicum.shareit.booking.model.ItemOccupancy;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ItemOccupancyTest {
+    private final LocalDateTime time = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void of_whenPeriodsOverlapOrTouch_thenMerged() {
+        ItemOccupancy occupancy = ItemOccupancy.of(List.of(
+                period(0, 2), period(1, 3), period(3, 4), period(6, 7)));
+
+        assertEquals(2, occupancy.size());
+        List<AvailabilitySlotDto> slots = occupancy.getSlots(at(0), at(7));
+        assertSlot(slots.get(0), 0, 4, true);
+        assertSlot(slots.get(1), 4, 6, false);
+        assertSlot(slots.get(2), 6, 7, true);
+    }
+
+    @Test
+    void getSlots_whenRangeCutsPeriods_thenSlotsClippedToRange() {
+        ItemOccupancy occupancy = ItemOccupancy.of(List.of(period(0, 4), period(10, 12), period(20, 30)));
+
+        List<AvailabilitySlotDto> slots = occupancy.getSlots(at(2), at(25));
+
+        assertEquals(5, slots.size());
+        assertSlot(slots.get(0), 2, 4, true);
+        assertSlot(slots.get(1), 4, 10, false);
+        assertSlot(slots.get(2), 10, 12, true);
+        assertSlot(slots.get(3), 12, 20, false);
+        assertSlot(slots.get(4), 20, 25, true);
+    }
+
+    @Test
+    void getSlots_whenNoPeriodsInRange_thenWholeRangeFree() {
+        ItemOccupancy occupancy = ItemOccupancy.of(List.of(period(0, 4), period(20, 30)));
+
+        List<AvailabilitySlotDto> slots = occupancy.getSlots(at(4), at(20));
+
+        assertEquals(1, slots.size());
+        assertSlot(slots.get(0), 4, 20, false);
+    }
+
+    @Test
+    void getSlots_whenNoBookings_thenWholeRangeFree() {
+        List<AvailabilitySlotDto> slots = ItemOccupancy.of(List.of()).getSlots(at(0), at(1));
+
+        assertEquals(1, slots.size());
+        assertFalse(slots.get(0).isBusy());
+    }
+
+    private void assertSlot(AvailabilitySlotDto slot, int startHour, int endHour, boolean busy) {
+        assertEquals(at(startHour), slot.getStart());
+        assertEquals(at(endHour), slot.getEnd());
+        assertEquals(busy, slot.isBusy());
+    }
+
+    private LocalDateTime at(int hour) {
+        return time.plusHours(hour);
+    }
+
+    private BookingPeriodProjection period(int startHour, int endHour) {
+        return new BookingPeriodProjection() {
+            @Override
+            public LocalDateTime getStartTime() {
+                return at(startHour);
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return at(endHour);
+            }
+        };
+    }
+}
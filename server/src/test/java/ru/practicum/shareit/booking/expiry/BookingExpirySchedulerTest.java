@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpirySchedulerTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-10T12:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+
+    @Mock
+    private BookingService bookingService;
+
+    private MeterRegistry meterRegistry;
+    private BookingExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        BookingExpiryProperties properties = new BookingExpiryProperties();
+        properties.setBatchSize(10);
+        properties.setMaxBatchesPerRun(3);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new BookingExpiryScheduler(bookingService, properties, CLOCK, meterRegistry);
+    }
+
+    @Test
+    void expireStaleBookings_whenLastBatchIsPartial_thenStopAndRecordRows() {
+        when(bookingService.expireWaitingBookings(NOW, 10)).thenReturn(10, 4);
+
+        int expired = scheduler.expireStaleBookings();
+
+        assertEquals(14, expired);
+        verify(bookingService, times(2)).expireWaitingBookings(NOW, 10);
+        assertEquals(14, meterRegistry.get("shareit.booking.expiry.expired").counter().count());
+        assertEquals(14, meterRegistry.get("shareit.booking.expiry.run.rows").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("shareit.booking.expiry.run.time").timer().count());
+    }
+
+    @Test
+    void expireStaleBookings_whenBatchesStayFull_thenLimitedByMaxBatchesPerRun() {
+        when(bookingService.expireWaitingBookings(NOW, 10)).thenReturn(10);
+
+        int expired = scheduler.expireStaleBookings();
+
+        assertEquals(30, expired);
+        verify(bookingService, times(3)).expireWaitingBookings(NOW, 10);
+    }
+
+    @Test
+    void expireStaleBookings_whenNothingToExpire_thenRunStillRecorded() {
+        when(bookingService.expireWaitingBookings(NOW, 10)).thenReturn(0);
+
+        int expired = scheduler.expireStaleBookings();
+
+        assertEquals(0, expired);
+        assertEquals(1, meterRegistry.get("shareit.booking.expiry.run.rows").summary().count());
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.entity-cache.enabled=true")
+class EntityCacheConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findById_whenEntitiesAlreadyRead_thenServedFromCache() {
+        User owner = userRepository.save(new User("Owner", "owner@entity-cache.ru"));
+        Item item = itemRepository.save(new Item("Дрель", "Простая дрель", owner, true));
+        itemRepository.findById(item.getItemId());
+        userRepository.findById(owner.getId());
+
+        statistics.clear();
+        Item cachedItem = itemRepository.findById(item.getItemId()).orElseThrow();
+        User cachedOwner = userRepository.findById(owner.getId()).orElseThrow();
+
+        assertEquals("Дрель", cachedItem.getName());
+        assertEquals("Owner", cachedOwner.getUserName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(Item.CACHE_REGION).getHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount() > 0);
+    }
+
+    @Test
+    void updateUser_whenUserCached_thenCacheUpdated() {
+        User user = userRepository.save(new User("Before", "before@entity-cache.ru"));
+        userRepository.findById(user.getId());
+
+        userService.updateUser(user.getId(), new UserDto("After", null));
+
+        assertEquals("After", userRepository.findById(user.getId()).orElseThrow().getUserName());
+    }
+
+    @Test
+    void findItemsByOwner_whenCalledTwice_thenSecondResultFromQueryCache() {
+        User owner = userRepository.save(new User("QueryOwner", "query-owner@entity-cache.ru"));
+        itemRepository.save(new Item("Пила", "Ручная пила", owner, true));
+        itemRepository.findItemsByOwnerIdOrderByItemIdAsc(owner.getId());
+
+        statistics.clear();
+        assertEquals(1, itemRepository.findItemsByOwnerIdOrderByItemIdAsc(owner.getId()).size());
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void hitRatioGauge_whenCacheEnabled_thenRegisteredForEachRegion() {
+        EntityCacheConfig.ENTITY_REGIONS.forEach(region -> {
+            Gauge gauge = meterRegistry.find("shareit.entity.cache.hit.ratio").tag("region", region).gauge();
+            assertNotNull(gauge);
+        });
+    }
+}
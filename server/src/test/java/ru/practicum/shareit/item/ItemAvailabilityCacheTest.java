@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.impl.BookingServiceImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.replica.ReplicaRoutingProperties;
+import ru.practicum.shareit.sql.StatementCounter;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+// Календарь занятости вещи берется из кэша, пока подтверждение бронирования его не сбросит
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemAvailabilityCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @SpyBean
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingServiceImpl bookingServiceImpl;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime time = LocalDateTime.now();
+
+    @Test
+    void getItemAvailability_whenCalledAgain_thenServedWithoutQueriesUntilBookingApproved() {
+        User owner = userRepository.save(new User("calendarOwner", "calendar-owner@availability-cache.ru"));
+        User booker = userRepository.save(new User("calendarBooker", "calendar-booker@availability-cache.ru"));
+        Item item = itemRepository.save(new Item("Item", "Description", owner, true, null));
+        bookingRepository.save(new Booking(item, booker, time.minusDays(2), time.minusDays(1), Status.APPROVED));
+        bookingRepository.save(new Booking(item, booker, time.plusDays(1), time.plusDays(2), Status.APPROVED));
+        LocalDateTime start = time.plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        Booking waiting = bookingRepository.save(new Booking(item, booker, start, start.plusDays(1), Status.WAITING));
+        LocalDateTime from = time.minusDays(3);
+        LocalDateTime to = time.plusDays(10);
+
+        List<AvailabilitySlotDto> before = itemService.getItemAvailability(item.getItemId(), from, to);
+        StatementCounter.Counted<List<AvailabilitySlotDto>> cached = StatementCounter.count(
+                () -> itemService.getItemAvailability(item.getItemId(), from, to));
+
+        assertEquals(0, cached.getStatementCount());
+        assertEquals(before.size(), cached.getResult().size());
+        // подтвержденные бронирования: прошедшее и будущее
+        assertEquals(5, before.size());
+
+        bookingService.setApprovedByOwner(owner.getId(), waiting.getBookingId(), true);
+        List<AvailabilitySlotDto> after = itemService.getItemAvailability(item.getItemId(), from, to);
+
+        assertEquals(7, after.size());
+        assertTrue(after.stream().anyMatch(slot -> slot.isBusy() && slot.getStart().equals(start)));
+    }
+
+    // Попадание в кэш не открывает транзакцию, промах читает занятость в транзакции только для чтения
+    @Test
+    void getItemAvailability_whenCached_thenNoTransactionOpened() {
+        User owner = userRepository.save(new User("txOwner", "tx-owner@availability-cache.ru"));
+        Item item = itemRepository.save(new Item("Item", "Description", owner, true, null));
+        LocalDateTime from = time.minusDays(3);
+        LocalDateTime to = time.plusDays(10);
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return List.of();
+        }).when(bookingRepository).findPeriodsByItem(eq(item.getItemId()), eq(Status.APPROVED));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        try {
+            itemService.getItemAvailability(item.getItemId(), from, to);
+            statistics.clear();
+            itemService.getItemAvailability(item.getItemId(), from, to);
+        } finally {
+            reset(bookingRepository);
+        }
+
+        assertEquals(List.of(true), readOnly);
+        assertEquals(0, statistics.getTransactionCount());
+    }
+
+    // Пока реплика может отставать на изменение занятости, прочитанная занятость не кэшируется
+    @Test
+    void getItemAvailability_whenChangedWithinReplicaLag_thenNotCached() {
+        User owner = userRepository.save(new User("lagOwner", "lag-owner@availability-cache.ru"));
+        User booker = userRepository.save(new User("lagBooker", "lag-booker@availability-cache.ru"));
+        Item item = itemRepository.save(new Item("Item", "Description", owner, true, null));
+        LocalDateTime start = time.plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        Booking waiting = bookingRepository.save(new Booking(item, booker, start, start.plusDays(1), Status.WAITING));
+        LocalDateTime from = time.minusDays(3);
+        LocalDateTime to = time.plusDays(10);
+        ReplicaRoutingProperties replicaProperties = new ReplicaRoutingProperties();
+        replicaProperties.setMaxLag(Duration.ofHours(1));
+        bookingServiceImpl.setReplicaRoutingProperties(replicaProperties);
+
+        try {
+            bookingService.setApprovedByOwner(owner.getId(), waiting.getBookingId(), true);
+            itemService.getItemAvailability(item.getItemId(), from, to);
+            long statements = StatementCounter.count(() -> itemService.getItemAvailability(item.getItemId(), from, to))
+                    .getStatementCount();
+
+            assertTrue(statements > 0);
+        } finally {
+            replicaProperties.setMaxLag(Duration.ZERO);
+            bookingServiceImpl.setReplicaRoutingProperties(replicaProperties);
+        }
+    }
+
+    @Test
+    void getItemAvailability_whenBookingApprovedDuringLoad_thenStaleOccupancyNotCached() throws Exception {
+        User owner = userRepository.save(new User("raceOwner", "race-owner@availability-cache.ru"));
+        User booker = userRepository.save(new User("raceBooker", "race-booker@availability-cache.ru"));
+        Item item = itemRepository.save(new Item("Item", "Description", owner, true, null));
+        LocalDateTime start = time.plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        Booking waiting = bookingRepository.save(new Booking(item, booker, start, start.plusDays(1), Status.WAITING));
+        LocalDateTime from = time.minusDays(3);
+        LocalDateTime to = time.plusDays(10);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // подтверждение фиксируется и сбрасывает кэш после чтения бронирований (подтвержденных еще нет),
+        // но до записи занятости в кэш
+        doAnswer(invocation -> {
+            executor.submit(() -> bookingService.setApprovedByOwner(owner.getId(), waiting.getBookingId(), true))
+                    .get(1, TimeUnit.MINUTES);
+            return List.of();
+        }).when(bookingRepository).findPeriodsByItem(eq(item.getItemId()), eq(Status.APPROVED));
+
+        try {
+            List<AvailabilitySlotDto> stale = itemService.getItemAvailability(item.getItemId(), from, to);
+            reset(bookingRepository);
+            List<AvailabilitySlotDto> after = itemService.getItemAvailability(item.getItemId(), from, to);
+
+            assertEquals(1, stale.size());
+            assertEquals(3, after.size());
+            assertTrue(after.stream().anyMatch(slot -> slot.isBusy() && slot.getStart().equals(start)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
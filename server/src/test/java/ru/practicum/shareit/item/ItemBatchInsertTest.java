@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.sql.StatementCounter;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemBatchInsertTest {
+    private static final int ITEMS = 100;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createItems_whenManyItems_thenInsertedInBatches() {
+        User owner = userRepository.save(new User("batchOwner", "batch-owner@item-batch.ru"));
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemDtos.add(new ItemDto("Item " + i, "Description " + i, true, null));
+        }
+        itemDtos.add(new ItemDto("Item", "Description", true, Long.MAX_VALUE));
+
+        StatementCounter.Counted<List<ItemBatchResultDto>> counted = StatementCounter.count(
+                () -> itemService.createItems(owner.getId(), itemDtos));
+        List<ItemBatchResultDto> results = counted.getResult();
+
+        assertEquals(ITEMS + 1, results.size());
+        results.subList(0, ITEMS).forEach(result -> {
+            assertNotNull(result.getItem().getId());
+            assertNull(result.getError());
+        });
+        assertNull(results.get(ITEMS).getItem());
+        assertEquals("Запрос с указанным id не найден", results.get(ITEMS).getError());
+        assertEquals(ITEMS, itemRepository.findItemsByOwnerIdOrderByItemIdAsc(owner.getId()).size());
+        // пользователь, запросы, несколько обращений к последовательности и две пакетные вставки по 50 вещей
+        assertTrue(counted.getStatementCount() <= 8, "Выполнено SQL-запросов: " + counted.getStatementCount());
+    }
+}
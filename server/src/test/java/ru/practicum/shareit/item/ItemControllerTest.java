@@ -6,24 +6,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
 class ItemControllerTest {
@@ -64,6 +74,28 @@ class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(itemDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void createItems_whenItemsCreated_thenReturnResultPerItem() {
+        List<ItemDto> itemDtos = List.of(new ItemDto("Name", "About of item", true, null), new ItemDto());
+        List<ItemBatchResultDto> results = List.of(
+                new ItemBatchResultDto(0, new ItemDto(1L, "Name", "About of item", true, null), null),
+                new ItemBatchResultDto(1, null, "Не указано название вещи"));
+        when(itemService.createItems(eq(1L), any())).thenReturn(results);
+
+        String result = mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(itemDtos))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
     @SneakyThrows
     @Test
     void updateItemById_whenResponseStatusOk() {
@@ -137,6 +169,48 @@ class ItemControllerTest {
         verify(itemService).searchAvailableItems(text);
     }
 
+    @SneakyThrows
+    @Test
+    void searchAvailableItems_whenSizeGiven_thenReturnPageWithNextCursor() {
+        ItemDto itemDto = new ItemDto(1L, "Pen", "Writes", true, 0L);
+        when(itemService.searchAvailableItems("pen", null, 1)).thenReturn(new CursorPage<>(List.of(itemDto), "next"));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "pen")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @SneakyThrows
+    @Test
+    void streamAvailableItems_whenNdjsonAccepted_thenItemsWrittenLineByLine() {
+        ItemDto pen = new ItemDto(1L, "Pen", "Writes", true, 0L);
+        ItemDto pencil = new ItemDto(2L, "Pencil", "Draws", true, 0L);
+        // каждая порция запрашивается у сервиса отдельно, следующая - по курсору предыдущей
+        when(itemService.searchAvailableItems(eq("pen"), isNull(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(pen), "next"));
+        when(itemService.searchAvailableItems(eq("pen"), eq("next"), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(pencil), null));
+
+        MvcResult asyncResult = mockMvc.perform(get("/items/search")
+                        .param("text", "pen")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = result.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], ItemDto.class).getId());
+        assertEquals(2L, objectMapper.readValue(lines[1], ItemDto.class).getId());
+    }
+
     @SneakyThrows
     @Test
     void addCommentToItem() {
@@ -159,4 +233,33 @@ class ItemControllerTest {
 
         assertEquals(objectMapper.writeValueAsString(commentDto), result);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getItemAvailability_whenRangeGiven_thenReturnSlots() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemService.getItemAvailability(1L, from, to)).thenReturn(List.of(
+                new AvailabilitySlotDto(from, from.plusHours(2), true),
+                new AvailabilitySlotDto(from.plusHours(2), to, false)));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].busy").value(true))
+                .andExpect(jsonPath("$[1].start").value("2030-01-01T02:00:00"))
+                .andExpect(jsonPath("$[1].busy").value(false));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemAvailability_whenItemNotFound_thenResponseStatusNotFound() {
+        when(itemService.getItemAvailability(eq(1L), any(), any())).thenThrow(NotFoundException.class);
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isNotFound());
+    }
+}
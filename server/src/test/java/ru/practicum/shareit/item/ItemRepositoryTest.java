@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemSearchProjection;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
@@ -70,6 +72,37 @@ class ItemRepositoryTest {
         assertThat(actualItems.size(), equalTo(2));
     }
 
+    // Совпадение в названии ставится выше совпадения в описании
+    @Test
+    void searchAvailableItems_whenMatchInNameAndDescription_thenNameFirst() {
+        Item item4 = itemRepository.save(new Item(
+                "Photo printer",
+                "Prints pictures",
+                userRepository.findAll().get(0),
+                true,
+                null
+        ));
+
+        List<Item> actualItems = itemRepository.searchAvailableItems("photo");
+
+        assertThat(actualItems.size(), equalTo(2));
+        assertThat(actualItems.get(0).getItemId(), equalTo(item4.getItemId()));
+        assertThat(actualItems.get(1).getName(), equalTo("Camera"));
+    }
+
+    // Следующая страница поиска начинается после последней вещи предыдущей страницы
+    @Test
+    void searchAvailableItemsAfter_whenFirstPageTaken_thenReturnRest() {
+        List<ItemSearchProjection> firstPage = itemRepository.searchAvailableItems("you", PageRequest.of(0, 1));
+        List<ItemSearchProjection> secondPage = itemRepository.searchAvailableItemsAfter("you",
+                firstPage.get(0).getSearchRank(), firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getSearchRank(), equalTo(2));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId() > firstPage.get(0).getId(), equalTo(true));
+    }
+
     @AfterEach
     private void deleteItem() {
         itemRepository.deleteAll();
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Постраничный и потоковый поиск по строке с символами шаблона LIKE: символы сравниваются буквально,
+// а курсор несет ту же релевантность, что и сортировка в базе
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ItemSearchPagingTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void searchAvailableItems_whenTextContainsUnderscore_thenPagesFollowDatabaseOrder() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String text = "q_" + suffix;
+        User owner = userRepository.save(new User("Owner", "owner-" + suffix + "@search-paging.ru"));
+        Item startsFirst = itemRepository.save(new Item(text + " drill", "Drill", owner, true));
+        Item startsSecond = itemRepository.save(new Item(text + " saw", "Saw", owner, true));
+        Item containsInName = itemRepository.save(new Item("Big " + text, "Lamp", owner, true));
+        Item inDescription = itemRepository.save(new Item("Hammer", "Fits " + text, owner, true));
+        // совпадает со строкой, только если _ считать любым символом
+        itemRepository.save(new Item("qx" + suffix + " decoy", "Decoy", owner, true));
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ItemDto> page = itemService.searchAvailableItems(text, cursor, 1);
+            page.getContent().forEach(item -> paged.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<Long> streamed = streamIds(text);
+
+        List<Long> expected = List.of(startsFirst, startsSecond, containsInName, inDescription).stream()
+                .map(Item::getItemId)
+                .collect(Collectors.toList());
+        assertEquals(expected, paged);
+        assertEquals(expected, streamed);
+    }
+
+    // Потоковая выдача читает результат порциями готовых строк: сущности вещей не загружаются,
+    // поэтому контекст персистентности не растет вместе с размером результата
+    @Test
+    void streamAvailableItems_whenResultSpansSeveralBatches_thenNoEntitiesLoaded() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String text = "stream-" + suffix;
+        User owner = userRepository.save(new User("Owner", "owner-" + suffix + "@search-stream.ru"));
+        itemRepository.saveAll(IntStream.range(0, 250)
+                .mapToObj(i -> new Item(text + " " + i, "Item", owner, true))
+                .collect(Collectors.toList()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> streamed = streamIds(text);
+
+        assertEquals(250, streamed.size());
+        assertEquals(250, streamed.stream().distinct().count());
+        assertEquals(0, statistics.getEntityLoadCount());
+        // три порции по 100, 100 и 50 строк
+        assertEquals(3, statistics.getQueryExecutionCount());
+    }
+
+    @SneakyThrows
+    private List<Long> streamIds(String text) {
+        MvcResult asyncResult = mockMvc.perform(get("/items/search")
+                        .param("text", text)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            ids.add(objectMapper.readValue(line, ItemDto.class).getId());
+        }
+        return ids;
+    }
+}
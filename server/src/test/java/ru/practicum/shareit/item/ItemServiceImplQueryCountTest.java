@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDtoForBookingAndComments;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.sql.StatementCounter.BIG;
+import static ru.practicum.shareit.sql.StatementCounter.SMALL;
+import static ru.practicum.shareit.sql.StatementCounter.assertCountIndependentOfSize;
+
+// Проверка того, что количество SQL-запросов при получении вещей владельца не зависит от числа вещей
+@SpringBootTest
+class ItemServiceImplQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final LocalDateTime time = LocalDateTime.now();
+
+    @Test
+    void getAllItemsUser_whenOwnerHasMoreItems_thenQueryCountIsTheSame() {
+        List<List<ItemDtoForBookingAndComments>> results = assertCountIndependentOfSize(this::createOwnerWithItems,
+                owner -> itemService.getAllItemsUser(owner.getId()));
+
+        assertEquals(SMALL, results.get(0).size());
+        assertEquals(BIG, results.get(1).size());
+        results.get(1).forEach(item -> {
+            assertEquals(1, item.getComments().size());
+            assertEquals(item.getId(), bookingRepository.findById(item.getLastBooking().getId())
+                    .orElseThrow().getItem().getItemId());
+        });
+    }
+
+    private User createOwnerWithItems(String prefix, int itemCount) {
+        User owner = userRepository.save(new User(prefix + "Owner", prefix + "-owner@query-count.ru"));
+        for (int i = 0; i < itemCount; i++) {
+            // у каждой вещи свой арендатор, чтобы ленивые/жадные загрузки пользователей тоже попадали в счетчик
+            User booker = userRepository.save(new User(prefix + "Booker" + i, prefix + "-booker" + i + "@query-count.ru"));
+            Item item = itemRepository.save(new Item("Item " + i, "Description " + i, owner, true, null));
+            bookingRepository.save(new Booking(item, booker, time.minusDays(2), time.minusDays(1), Status.APPROVED));
+            bookingRepository.save(new Booking(item, booker, time.plusDays(1), time.plusDays(2), Status.APPROVED));
+            Comment comment = new Comment("Comment " + i, booker, time.minusHours(1));
+            comment.setItem(item);
+            commentRepository.save(comment);
+        }
+        return owner;
+    }
+}
@@ -7,15 +7,19 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingLastNextDtoMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemOccupancy;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.impl.ItemServiceImpl;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
@@ -23,13 +27,17 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +51,8 @@ class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
     @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
     private UserService userService;
     @Mock
     private BookingService bookingService;
@@ -74,6 +84,46 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).save(item);
     }
 
+    @Test
+    void createItems_whenSomeItemsInvalid_thenOnlyValidItemsSaved() {
+        User user = new User(1L, "Name", "user@mail.ru");
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        ItemDto valid = new ItemDto("name", "description", true, 5L);
+        ItemDto withoutName = new ItemDto(" ", "description", true, null);
+        ItemDto withUnknownRequest = new ItemDto("name", "description", true, 7L);
+        Item item = new Item("name", "description", user, true);
+        ItemDto savedDto = new ItemDto(10L, "name", "description", true, 5L);
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of(request));
+        when(itemMapper.toItem(valid)).thenReturn(item);
+        when(itemRepository.saveAll(anyList())).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(item)).thenReturn(savedDto);
+
+        List<ItemBatchResultDto> results = itemService.createItems(1L,
+                List.of(valid, withoutName, withUnknownRequest));
+
+        verify(itemRepository).saveAll(List.of(item));
+        assertThat(item.getOwner(), equalTo(user));
+        assertThat(item.getRequest(), equalTo(request));
+        assertEquals(3, results.size());
+        assertThat(results.get(0).getItem(), equalTo(savedDto));
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(1).getItem(), nullValue());
+        assertEquals("Не указано название вещи", results.get(1).getError());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals("Запрос с указанным id не найден", results.get(2).getError());
+    }
+
+    @Test
+    void createItems_whenUserNotFound_thenReturnThrow() {
+        when(userService.getUserById(1L)).thenThrow(NotFoundException.class);
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.createItems(1L, List.of(new ItemDto())));
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void createItem_whenCreate_responseThrow() {
         User user = new User();
@@ -95,7 +145,6 @@ class ItemServiceImplTest {
         Item newItem = new Item("New Name", "New description", new User(), true);
         when(itemMapper.toItem(any(ItemDto.class))).thenReturn(newItem);
         when(itemRepository.getReferenceById(itemId)).thenReturn(oldItem);
-        when(userService.getUserById(userId)).thenReturn(user);
 
         itemService.updateItem(user.getId(), itemId, newItemDto);
 
@@ -115,7 +164,6 @@ class ItemServiceImplTest {
         Item oldItem = new Item("name", "description", user, true);
 
         when(itemMapper.toItem(any(ItemDto.class))).thenReturn(oldItem);
-        when(userService.getUserById(userId)).thenReturn(user);
         when(itemRepository.getReferenceById(itemId)).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(user.getId(), itemId, itemDto));
@@ -142,7 +190,6 @@ class ItemServiceImplTest {
     @Test
     void getAllItemsUser_whenAllItemsFound_thenReturnListOfItem() {
         Long userId = 0L;
-        when(userService.getUserById(any(Long.class))).thenReturn(new User());
         when(itemRepository.findItemsByOwnerIdOrderByItemIdAsc(any(Long.class))).thenReturn(new ArrayList<>());
 
         itemService.getAllItemsUser(userId);
@@ -155,26 +202,31 @@ class ItemServiceImplTest {
     void getAllItemsUser_whenAllItemsFoundWithComments_thenReturnListOfItem() {
         Long userId = 0L;
         List<Item> items = new ArrayList<>();
-        items.add(new Item("Name of Item", "Description of Item", new User(), true, null));
+        Item item = new Item("Name of Item", "Description of Item", new User(), true, null);
+        items.add(item);
 
         List<Comment> comments = new ArrayList<>();
-        comments.add(new Comment("text"));
-        when(userService.getUserById(any(Long.class))).thenReturn(new User());
+        Comment comment = new Comment("text");
+        comment.setItem(item);
+        comments.add(comment);
         when(itemRepository.findItemsByOwnerIdOrderByItemIdAsc(any(Long.class))).thenReturn(items);
-        when(commentRepository.findAllByItemOrderByItem(any(Item.class))).thenReturn(comments);
+        when(commentRepository.findAllByItemIn(anyList())).thenReturn(comments);
         when(itemDtoForBookingAndCommentsMapper.toItemDtoForBookingAndComments(any(Item.class))).thenReturn(new ItemDtoForBookingAndComments());
 
         itemService.getAllItemsUser(userId);
 
         verify(itemRepository, times(1)).findItemsByOwnerIdOrderByItemIdAsc(userId);
-        verify(commentRepository, atMostOnce()).findAllByItemOrderByItem(any(Item.class));
+        verify(bookingService, times(1)).getLastBookingsOfItems(eq(List.of(item.getItemId())), any(LocalDateTime.class));
+        verify(bookingService, times(1)).getNextBookingsOfItems(eq(List.of(item.getItemId())), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIn(items);
+        verify(commentRepository, never()).findAllByItemOrderByItem(any(Item.class));
         verify(commentMapper, times(1)).toCommentDto(any(Comment.class));
     }
 
     @Test
     void getAllItemsUser_whenUserNotFound_thenReturnToThrow() {
         Long userId = 0L;
-        when(userService.getUserById(any(Long.class))).thenThrow(NotFoundException.class);
+        doThrow(NotFoundException.class).when(userService).checkUserExists(any(Long.class));
 
         assertThrows(NotFoundException.class,
                 () -> itemService.getAllItemsUser(any(Long.class)));
@@ -206,6 +258,72 @@ class ItemServiceImplTest {
         assertThat(listOfItems, equalTo(savedOfItems));
     }
 
+    @Test
+    void searchAvailableItemsPage_whenPageIsFull_thenNextPageStartsAfterLastItem() {
+        String text = "cam";
+        Item first = new Item(3L, "Camera", "Allows you to take photos", new User(), true);
+        Item second = new Item(1L, "Webcam", "For video calls", new User(), true);
+        Item third = new Item(2L, "Tripod", "Holds a camera", new User(), true);
+        when(itemRepository.searchAvailableItems(eq(text), any(Pageable.class)))
+                .thenReturn(List.of(searchResult(first, 0), searchResult(second, 1)));
+        when(itemRepository.searchAvailableItemsAfter(eq(text), eq(1), eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(searchResult(third, 2)));
+
+        CursorPage<ItemDto> firstPage = itemService.searchAvailableItems(text, null, 2);
+        CursorPage<ItemDto> secondPage = itemService.searchAvailableItems(text, firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getContent().stream().map(ItemDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(3L, 1L)));
+        assertThat(secondPage.getContent().get(0).getName(), equalTo("Tripod"));
+        assertThat(secondPage.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void searchAvailableItemsPage_whenCursorIsMalformed_thenValidationExceptionThrown() {
+        assertThrows(ValidationException.class, () -> itemService.searchAvailableItems("cam", "not-a-cursor", 2));
+    }
+
+    @Test
+    void searchAvailableItemsPage_whenTextHasLikeWildcards_thenTheyAreEscaped() {
+        itemService.searchAvailableItems("50%_off\\", null, 2);
+
+        verify(itemRepository).searchAvailableItems(eq("50\\%\\_off\\\\"), any(Pageable.class));
+    }
+
+    private static ItemSearchProjection searchResult(Item item, int rank) {
+        return new ItemSearchProjection() {
+            @Override
+            public Long getId() {
+                return item.getItemId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return item.getIsAvailable();
+            }
+
+            @Override
+            public Long getRequestId() {
+                return null;
+            }
+
+            @Override
+            public int getSearchRank() {
+                return rank;
+            }
+        };
+    }
+
     @Test
     void getItemWithBooker_whenItemsFound_thenReturnListOfItemWithBooker() {
         Long itemId = 0L;
@@ -222,6 +340,8 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).findById(userId);
         verify(commentRepository, atMostOnce()).findAllByItemOrderByItem(any(Item.class));
+        verify(bookingService, times(1)).getLastBookingsOfItems(eq(List.of(itemId)), any(LocalDateTime.class));
+        verify(bookingService, times(1)).getNextBookingsOfItems(eq(List.of(itemId)), any(LocalDateTime.class));
     }
 
     @Test
@@ -316,4 +436,23 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).findById(userId);
         verify(commentRepository, never()).save(comment);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailability_whenRangeValid_thenSlotsFromOccupancy() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(bookingService.getItemOccupancy(1L)).thenReturn(ItemOccupancy.of(List.of()));
+
+        List<AvailabilitySlotDto> slots = itemService.getItemAvailability(1L, from, from.plusDays(1));
+
+        assertEquals(1, slots.size());
+        assertEquals(from, slots.get(0).getStart());
+    }
+
+    @Test
+    void getItemAvailability_whenRangeEmpty_thenThrowValidation() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(1L, from, from));
+        verifyNoInteractions(bookingService);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.replica;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private final ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+
+    @Test
+    void isReplicaUsable_whenCheckHangs_thenAnswersWithoutWaiting() throws Exception {
+        CountDownLatch checkStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenAnswer(invocation -> {
+            checkStarted.countDown();
+            release.await();
+            throw new SQLException("Реплика недоступна");
+        });
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties);
+        try {
+            monitor.start();
+            assertTrue(checkStarted.await(1, TimeUnit.MINUTES));
+
+            // проверка в фоне зависла на соединении, а чтения сразу получают ответ
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertFalse(monitor.isReplicaUsable()));
+        } finally {
+            release.countDown();
+            monitor.close();
+        }
+    }
+
+    @Test
+    void refresh_whenLagWithinLimit_thenReplicaUsable() throws Exception {
+        DataSource replica = replicaWithLag(1);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties);
+
+        monitor.refresh();
+
+        assertTrue(monitor.isReplicaUsable());
+        monitor.close();
+    }
+
+    @Test
+    void refresh_whenLagAboveLimit_thenReplicaNotUsable() throws Exception {
+        DataSource replica = replicaWithLag(60);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties);
+
+        monitor.refresh();
+
+        assertFalse(monitor.isReplicaUsable());
+        monitor.close();
+    }
+
+    private static DataSource replicaWithLag(double lagSeconds) throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        return replica;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.replica;
+
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Основная база и реплика представлены двумя независимыми базами H2; реплика наполняется отдельно,
+// поэтому по содержимому ответа видно, откуда было выполнено чтение. Отставание проверяется вручную,
+// а не по расписанию
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-primary;DB_CLOSE_DELAY=-1",
+        "shareit.replica.enabled=true",
+        "shareit.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.replica.username=test",
+        "shareit.replica.password=test",
+        "shareit.replica.driver-class-name=org.h2.Driver",
+        "shareit.replica.lag-query=select lag_seconds from replica_lag",
+        "shareit.replica.lag-check-interval=1h",
+        "shareit.replica.max-lag=5s"
+})
+class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists replica_lag (lag_seconds int)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag values (0)");
+        replica.update("delete from users");
+        replica.update("insert into users (name, email) values ('Replica', 'replica@replica.ru')");
+        refreshLag();
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaUpToDate_thenReadFromReplica() {
+        userService.createUser(new UserDto("Primary", "primary-read@replica.ru"));
+
+        List<String> emails = getAllEmails();
+
+        assertEquals(List.of("replica@replica.ru"), emails);
+    }
+
+    @Test
+    void writeTransaction_thenWrittenToPrimary() {
+        User user = userService.createUser(new UserDto("Primary", "primary-write@replica.ru"));
+
+        assertEquals(0, replica.queryForObject("select count(*) from users where id = ? and email = ?",
+                Integer.class, user.getId(), user.getEmail()));
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaLagging_thenReadFromPrimary() {
+        userService.createUser(new UserDto("Primary", "primary-lag@replica.ru"));
+        replica.update("update replica_lag set lag_seconds = 60");
+        refreshLag();
+
+        List<String> emails = getAllEmails();
+
+        assertTrue(emails.contains("primary-lag@replica.ru"));
+        assertFalse(emails.contains("replica@replica.ru"));
+    }
+
+    @Test
+    void readOnlyTransaction_whenLagUnknown_thenReadFromPrimary() {
+        userService.createUser(new UserDto("Primary", "primary-unknown@replica.ru"));
+        replica.execute("drop table replica_lag");
+        refreshLag();
+
+        List<String> emails = getAllEmails();
+
+        assertTrue(emails.contains("primary-unknown@replica.ru"));
+        assertFalse(emails.contains("replica@replica.ru"));
+    }
+
+    @SneakyThrows
+    private void refreshLag() {
+        dataSource.unwrap(ReplicaRoutingDataSource.class).getLagMonitor().refresh();
+    }
+
+    private List<String> getAllEmails() {
+        return userService.getAllUsers().stream()
+                .map(User::getEmail)
+                .collect(Collectors.toList());
+    }
+}
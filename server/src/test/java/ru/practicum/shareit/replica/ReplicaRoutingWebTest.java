@@ -0,0 +1,115 @@
+package ru.practicum.shareit.replica;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Запись после чтения в одном HTTP-запросе: чтение может идти с реплики, но запись всегда уходит
+// на основную базу. Пользователь скопирован на реплику, поэтому чтение с нее успешно
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingWebTest.PRIMARY_URL,
+        "shareit.replica.enabled=true",
+        "shareit.replica.url=" + ReplicaRoutingWebTest.REPLICA_URL,
+        "shareit.replica.username=test",
+        "shareit.replica.password=test",
+        "shareit.replica.driver-class-name=org.h2.Driver",
+        "shareit.replica.lag-query=select lag_seconds from replica_lag",
+        "shareit.replica.lag-check-interval=1h",
+        "shareit.replica.max-lag=5s"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingWebTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:shareit-web-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-web-replica;DB_CLOSE_DELAY=-1";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private User user;
+
+    @SneakyThrows
+    @BeforeEach
+    void setUp() {
+        DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "test", "test"));
+        replica.execute("create table if not exists replica_lag (lag_seconds int)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag values (0)");
+        dataSource.unwrap(ReplicaRoutingDataSource.class).getLagMonitor().refresh();
+        String suffix = UUID.randomUUID().toString();
+        user = userService.createUser(new UserDto("Primary", "primary-" + suffix + "@replica-web.ru"));
+        replica.update("insert into users (id, name, email) values (?, ?, ?)",
+                user.getId(), user.getUserName(), user.getEmail());
+    }
+
+    @SneakyThrows
+    @Test
+    void createItem_whenOwnerReadFromReplica_thenItemWrittenToPrimary() {
+        String name = "Дрель " + UUID.randomUUID();
+
+        mockMvc.perform(post("/items")
+                        .header(USER_HEADER, user.getId())
+                        .contentType("application/json")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(new ItemDto(name, "Простая дрель", true, null))))
+                .andExpect(status().isOk());
+
+        assertEquals(1, countItems(primary, name));
+        assertEquals(0, countItems(replica, name));
+    }
+
+    @SneakyThrows
+    @Test
+    void updateUser_whenUserReadInSameRequest_thenUpdateWrittenToPrimary() {
+        mockMvc.perform(patch("/users/{userId}", user.getId())
+                        .contentType("application/json")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(new UserDto("Updated", null))))
+                .andExpect(status().isOk());
+
+        assertEquals("Updated", primary.queryForObject("select name from users where id = ?", String.class,
+                user.getId()));
+        assertEquals("Primary", replica.queryForObject("select name from users where id = ?", String.class,
+                user.getId()));
+    }
+
+    private static int countItems(JdbcTemplate jdbcTemplate, String name) {
+        return jdbcTemplate.queryForObject("select count(*) from items where name = ?", Integer.class, name);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Transactional
+class ItemRequestRepositoryTest {
+
+    User requester;
+    User otherUser;
+    ItemRequest oldest;
+    ItemRequest sameTimeLower;
+    ItemRequest sameTimeHigher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime time = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    private void addSourceData() {
+        requester = userRepository.save(new User("Name", "name@mail.ru"));
+        otherUser = userRepository.save(new User("Other", "other@mail.ru"));
+
+        oldest = itemRequestRepository.save(newRequest("Drill", requester, time.minusDays(1)));
+        sameTimeLower = itemRequestRepository.save(newRequest("Ladder", requester, time));
+        sameTimeHigher = itemRequestRepository.save(newRequest("Saw", requester, time));
+        itemRequestRepository.save(newRequest("Own request", otherUser, time.plusDays(1)));
+    }
+
+    // Запросы с одинаковой датой создания упорядочены по убыванию идентификатора
+    @Test
+    void findAllByRequester_IdIsNotOrderByCreatedDescIdDescTest() {
+        List<ItemRequest> requests = itemRequestRepository
+                .findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(otherUser.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(sameTimeHigher.getId(), sameTimeLower.getId(), oldest.getId()), ids(requests));
+    }
+
+    // Смещение, не кратное размеру выборки, не округляется до начала страницы
+    @Test
+    void findAllByRequester_IdIsNotOrderByCreatedDescIdDesc_whenOffsetIsNotMultipleOfSize_thenStartsAtOffset() {
+        List<ItemRequest> requests = itemRequestRepository
+                .findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(otherUser.getId(), new OffsetPageRequest(1, 2));
+
+        assertEquals(List.of(sameTimeLower.getId(), oldest.getId()), ids(requests));
+    }
+
+    // Продолжение после запроса с той же датой создания не пропускает и не повторяет запросы
+    @Test
+    void findOtherUsersRequestsAfterTest() {
+        List<ItemRequest> requests = itemRequestRepository.findOtherUsersRequestsAfter(otherUser.getId(),
+                sameTimeHigher.getCreated(), sameTimeHigher.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(sameTimeLower.getId(), oldest.getId()), ids(requests));
+    }
+
+    @Test
+    void findUserRequestsAfterTest() {
+        List<ItemRequest> requests = itemRequestRepository.findUserRequestsAfter(requester.getId(),
+                sameTimeLower.getCreated(), sameTimeLower.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(oldest.getId()), ids(requests));
+    }
+
+    @AfterEach
+    private void deleteAllRepository() {
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private ItemRequest newRequest(String description, User user, LocalDateTime created) {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription(description);
+        itemRequest.setRequester(user);
+        itemRequest.setCreated(created);
+        return itemRequest;
+    }
+
+    private List<Long> ids(List<ItemRequest> requests) {
+        return requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+    }
+}
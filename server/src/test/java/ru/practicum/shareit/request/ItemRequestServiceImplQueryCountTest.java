@@ -0,0 +1,79 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.sql.StatementCounter;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.sql.StatementCounter.BIG;
+import static ru.practicum.shareit.sql.StatementCounter.SMALL;
+import static ru.practicum.shareit.sql.StatementCounter.assertCountIndependentOfSize;
+
+// Проверка того, что количество SQL-запросов при получении списков запросов не зависит от их числа
+@SpringBootTest
+class ItemRequestServiceImplQueryCountTest {
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime time = LocalDateTime.now();
+
+    @Test
+    void getAllItemRequestOfUser_whenUserHasMoreRequests_thenQueryCountIsTheSame() {
+        List<List<ItemRequestDto>> results = assertCountIndependentOfSize(this::createRequesterWithRequests,
+                requester -> itemRequestService.getAllItemRequestOfUser(requester.getId(), 0, 50));
+
+        assertEquals(SMALL, results.get(0).size());
+        assertEquals(BIG, results.get(1).size());
+        results.get(1).forEach(request -> assertEquals(1, request.getItems().size()));
+    }
+
+    @Test
+    void getAllItemRequestOfOtherUsers_whenMoreRequestsExist_thenQueryCountIsTheSame() {
+        User viewer = userRepository.save(new User("Viewer", "viewer@request-count.ru"));
+        createRequesterWithRequests("first", SMALL);
+        // первый вызов помещает пользователя в кэш, чтобы оба замера выполняли одинаковую работу
+        itemRequestService.getAllItemRequestOfOtherUsers(viewer.getId(), 0, 100);
+
+        long fewRequestsQueries = StatementCounter.count(
+                () -> itemRequestService.getAllItemRequestOfOtherUsers(viewer.getId(), 0, 100)).getStatementCount();
+        createRequesterWithRequests("second", BIG);
+        StatementCounter.Counted<List<ItemRequestDto>> manyRequests = StatementCounter.count(
+                () -> itemRequestService.getAllItemRequestOfOtherUsers(viewer.getId(), 0, 100));
+
+        assertTrue(manyRequests.getResult().size() >= SMALL + BIG);
+        assertEquals(fewRequestsQueries, manyRequests.getStatementCount());
+    }
+
+    private User createRequesterWithRequests(String prefix, int requestCount) {
+        User requester = userRepository.save(new User(prefix + "Requester", prefix + "-requester@request-count.ru"));
+        for (int i = 0; i < requestCount; i++) {
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setDescription("Request " + i);
+            itemRequest.setRequester(requester);
+            itemRequest.setCreated(time.minusMinutes(i));
+            itemRequestRepository.save(itemRequest);
+            // на каждый запрос отвечает свой владелец, чтобы загрузка владельцев тоже попадала в счетчик
+            User owner = userRepository.save(new User(prefix + "Owner" + i, prefix + "-owner" + i + "@request-count.ru"));
+            itemRepository.save(new Item("Item " + i, "Description " + i, owner, true, itemRequest));
+        }
+        return requester;
+    }
+}
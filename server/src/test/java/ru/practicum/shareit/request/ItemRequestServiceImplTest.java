@@ -8,6 +8,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.impl.ItemRequestServiceImpl;
@@ -19,10 +23,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -35,6 +43,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemService itemService;
+
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
@@ -68,10 +79,11 @@ class ItemRequestServiceImplTest {
     @Test
     void getAllItemRequestOfUser_thenReturnAllItem() {
         Long userId = 1L;
-        when(itemRequestRepository.findAllItemRequestByRequester_IdIsNot(userId, PageRequest.of(0, 20)))
+        when(itemRequestRepository.findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(0, 20)))
                 .thenReturn(List.of(new ItemRequest()));
+        when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class))).thenReturn(new ItemRequestDto());
 
-        List<ItemRequest> allRequestSaved = new ArrayList<>(itemRequestService.getAllItemRequestOfOtherUsers(userId, 0, 20));
+        List<ItemRequestDto> allRequestSaved = new ArrayList<>(itemRequestService.getAllItemRequestOfOtherUsers(userId, 0, 20));
 
         assertEquals(allRequestSaved.size(), 1);
     }
@@ -81,10 +93,10 @@ class ItemRequestServiceImplTest {
         Long userId = 1L;
         List<ItemRequest> allItemRequestOfUser = new ArrayList<>();
 
-        when(itemRequestRepository.findAllByRequesterId(userId, PageRequest.of(0, 20)))
+        when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(0, 20)))
                 .thenReturn(allItemRequestOfUser);
 
-        List<ItemRequest> allRequestSaved = new ArrayList<>(itemRequestService.getAllItemRequestOfUser(userId, 0, 20));
+        List<ItemRequestDto> allRequestSaved = new ArrayList<>(itemRequestService.getAllItemRequestOfUser(userId, 0, 20));
 
         assertEquals(allRequestSaved.size(), 0);
     }
@@ -101,10 +113,10 @@ class ItemRequestServiceImplTest {
     void getAllItemRequestOfOtherUsers_thenReturnEmptyList() {
         Long userId = 1L;
         List<ItemRequest> allItemRequestOfUser = new ArrayList<>();
-        when(itemRequestRepository.findAllItemRequestByRequester_IdIsNot(userId, PageRequest.of(0, 20)))
+        when(itemRequestRepository.findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(0, 20)))
                 .thenReturn(allItemRequestOfUser);
 
-        List<ItemRequest> allRequestSaved = itemRequestService.getAllItemRequestOfOtherUsers(userId, 0, 20);
+        List<ItemRequestDto> allRequestSaved = itemRequestService.getAllItemRequestOfOtherUsers(userId, 0, 20);
 
         assertEquals(allRequestSaved.size(), 0);
     }
@@ -120,14 +132,58 @@ class ItemRequestServiceImplTest {
     @Test
     void getAllItemRequestOfOtherUsers_whenAllParametersIsGood_thenReturnAllItem() {
         Long userId = 1L;
-        when(itemRequestRepository.findAllByRequesterId(userId, PageRequest.of(0, 20)))
+        when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(0, 20)))
                 .thenReturn(List.of(new ItemRequest()));
+        when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class))).thenReturn(new ItemRequestDto());
 
-        List<ItemRequest> allRequestSaved = new ArrayList<>(itemRequestService.getAllItemRequestOfUser(userId, 0, 20));
+        List<ItemRequestDto> allRequestSaved = new ArrayList<>(itemRequestService.getAllItemRequestOfUser(userId, 0, 20));
 
         assertEquals(allRequestSaved.size(), 1);
     }
 
+    @Test
+    void getAllItemRequestOfOtherUsers_whenFromIsNotMultipleOfSize_thenOffsetIsKept() {
+        Long userId = 1L;
+        when(itemRequestRepository.findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(userId, new OffsetPageRequest(25, 10)))
+                .thenReturn(List.of(new ItemRequest()));
+        when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class))).thenReturn(new ItemRequestDto());
+
+        List<ItemRequestDto> allRequestSaved = itemRequestService.getAllItemRequestOfOtherUsers(userId, 25, 10);
+
+        assertEquals(1, allRequestSaved.size());
+    }
+
+    @Test
+    void getItemRequestPageOfOtherUsers_whenPageIsFull_thenNextPageSeeksAfterLastRequest() {
+        Long userId = 1L;
+        LocalDateTime created = LocalDateTime.now();
+        ItemRequest first = new ItemRequest(7L, "Drill", new User(), created);
+        ItemRequest second = new ItemRequest(5L, "Ladder", new User(), created.minusHours(1));
+        ItemRequest third = new ItemRequest(6L, "Saw", new User(), created.minusHours(2));
+        when(itemRequestRepository.findAllByRequester_IdIsNotOrderByCreatedDescIdDesc(userId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+        when(itemRequestRepository.findOtherUsersRequestsAfter(eq(userId), eq(second.getCreated()), eq(5L),
+                eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(third));
+        when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class))).thenAnswer(invocation -> toDto(invocation.getArgument(0)));
+
+        CursorPage<ItemRequestDto> firstPage = itemRequestService.getItemRequestPageOfOtherUsers(userId, "", 2);
+        CursorPage<ItemRequestDto> secondPage = itemRequestService
+                .getItemRequestPageOfOtherUsers(userId, firstPage.getNextCursor(), 2);
+
+        assertEquals(List.of(7L, 5L), ids(firstPage.getContent()));
+        assertEquals(List.of(6L), ids(secondPage.getContent()));
+        assertEquals(null, secondPage.getNextCursor());
+    }
+
+    @Test
+    void getItemRequestPageOfUser_whenCursorIsMalformed_thenReturnThrow() {
+        assertThrows(ValidationException.class,
+                () -> itemRequestService.getItemRequestPageOfUser(1L, "%%%", 2));
+
+        verify(itemRequestRepository, never()).findUserRequestsAfter(any(), any(), any(Long.class), any());
+    }
+
     @Test
     void getAllItemRequestOfOtherUsers_thenReturnThrow_FromNegative() {
         Long userId = 1L;
@@ -152,12 +208,17 @@ class ItemRequestServiceImplTest {
         User user = new User(1L, "Name", "user@mail.ru");
         ItemRequest itemRequest = new ItemRequest(1L, "ItemRequest", user, LocalDateTime.now());
 
+        ItemDtoForRequest item = new ItemDtoForRequest(3L, "Item", "About of item", true, itemRequest.getId());
+
         when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
+        when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(toDto(itemRequest));
+        when(itemService.getItemsForRequests(List.of(itemRequest.getId()))).thenReturn(List.of(item));
 
-        ItemRequest itemRequestSaved = itemRequestService.getItemRequest(itemRequest.getId(), user.getId());
+        ItemRequestDto itemRequestSaved = itemRequestService.getItemRequest(itemRequest.getId(), user.getId());
 
-        assertEquals(itemRequestSaved.getRequester().getUserName(), "Name");
+        assertEquals(itemRequestSaved.getOwnerId(), user.getId());
         assertEquals(itemRequestSaved.getDescription(), "ItemRequest");
+        assertEquals(itemRequestSaved.getItems(), List.of(item));
     }
 
     @Test
@@ -170,4 +231,15 @@ class ItemRequestServiceImplTest {
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getItemRequest(itemRequest.getId(), user.getId()));
     }
-}
\ No newline at end of file
+
+    private ItemRequestDto toDto(ItemRequest itemRequest) {
+        return new ItemRequestDto(itemRequest.getId(), itemRequest.getDescription(),
+                itemRequest.getRequester().getId(), itemRequest.getCreated());
+    }
+
+    private List<Long> ids(List<ItemRequestDto> itemRequests) {
+        return itemRequests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+    }
+}
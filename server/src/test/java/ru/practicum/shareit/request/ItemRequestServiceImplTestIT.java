@@ -47,15 +47,16 @@ class ItemRequestServiceImplTestIT {
         ItemRequestDto itemRequestDto2 = new ItemRequestDto("ItemRequest2", user.getId(), time.plusMinutes(2));
         itemRequestService.createItemRequest(itemRequestDto2, user.getId());
 
-        List<ItemRequest> savedListItemOfRequest = itemRequestService
+        List<ItemRequestDto> savedListItemOfRequest = itemRequestService
                 .getAllItemRequestOfUser(user.getId(), 0, 20);
 
+        // запросы отсортированы от новых к старым
         assertEquals(2, savedListItemOfRequest.size());
-        assertEquals(itemRequestDto1.getDescription(), savedListItemOfRequest.get(0).getDescription());
-        assertEquals(user.getUserName(), savedListItemOfRequest.get(0).getRequester().getUserName());
+        assertEquals(itemRequestDto2.getDescription(), savedListItemOfRequest.get(0).getDescription());
+        assertEquals(user.getId(), savedListItemOfRequest.get(0).getOwnerId());
 
-        assertEquals(itemRequestDto2.getDescription(), savedListItemOfRequest.get(1).getDescription());
-        assertEquals(user.getUserName(), savedListItemOfRequest.get(1).getRequester().getUserName());
+        assertEquals(itemRequestDto1.getDescription(), savedListItemOfRequest.get(1).getDescription());
+        assertEquals(user.getId(), savedListItemOfRequest.get(1).getOwnerId());
     }
 
     @Test
@@ -74,7 +75,7 @@ class ItemRequestServiceImplTestIT {
         UserDto userDto3 = new UserDto("Name10", "user10@mail.ru");
         User user3 = userService.createUser(userDto3);
 
-        List<ItemRequest> savedListItemOfOtherUsers = itemRequestService
+        List<ItemRequestDto> savedListItemOfOtherUsers = itemRequestService
                 .getAllItemRequestOfOtherUsers(user3.getId(), 0, 20);
 
         assertEquals(6, savedListItemOfOtherUsers.size());
@@ -88,10 +89,10 @@ class ItemRequestServiceImplTestIT {
         ItemRequestDto itemRequestDto = new ItemRequestDto("ItemRequest7", savedUser.getId(), time.plusMinutes(-10));
         ItemRequest savedItemRequest = itemRequestService.createItemRequest(itemRequestDto, savedUser.getId());
 
-        ItemRequest itemRequestReceivedFromRequest = itemRequestService.getItemRequest(savedItemRequest.getId(), savedUser.getId());
+        ItemRequestDto itemRequestReceivedFromRequest = itemRequestService.getItemRequest(savedItemRequest.getId(), savedUser.getId());
 
         assertEquals(savedItemRequest.getId(), itemRequestReceivedFromRequest.getId());
         assertEquals(savedItemRequest.getDescription(), itemRequestReceivedFromRequest.getDescription());
-        assertEquals(savedItemRequest.getRequester().getUserName(), itemRequestReceivedFromRequest.getRequester().getUserName());
+        assertEquals(savedItemRequest.getRequester().getId(), itemRequestReceivedFromRequest.getOwnerId());
     }
 }
\ No newline at end of file
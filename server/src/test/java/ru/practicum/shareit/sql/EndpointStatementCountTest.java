@@ -0,0 +1,142 @@
+package ru.practicum.shareit.sql;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Число SQL-запросов на каждый эндпоинт чтения: при нескольких вещах, бронированиях и комментариях
+// оно не должно расти вместе с количеством строк
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ROWS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        owner = userRepository.save(new User("Owner", "owner-" + suffix + "@statements.ru"));
+        booker = userRepository.save(new User("Booker", "booker-" + suffix + "@statements.ru"));
+        for (int i = 0; i < ROWS; i++) {
+            request = itemRequestRepository.save(new ItemRequest(0, "Нужна вещь " + i, booker, now.minusDays(i)));
+            item = itemRepository.save(new Item("Вещь " + suffix, "Описание " + i, owner, true, request));
+            booking = bookingRepository.save(new Booking(item, booker, now.minusDays(2), now.minusDays(1),
+                    Status.APPROVED));
+            bookingRepository.save(new Booking(item, booker, now.plusDays(1), now.plusDays(2), Status.WAITING));
+            commentRepository.save(newComment(item, booker, now));
+        }
+    }
+
+    @Test
+    void getBookingsOfBooker() {
+        assertStatementCount(2, get("/bookings").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void getBookingsOfOwner() {
+        assertStatementCount(2, get("/bookings/owner").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void getBookingPageOfBooker() {
+        assertStatementCount(2, get("/bookings").param("cursor", "").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void getBooking() {
+        assertStatementCount(2, get("/bookings/{bookingId}", booking.getBookingId())
+                .header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void getItemsOfOwner() {
+        assertStatementCount(5, get("/items").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void getItemOfOwner() {
+        assertStatementCount(5, get("/items/{itemId}", item.getItemId()).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void searchItems() {
+        assertStatementCount(1, get("/items/search").param("text", item.getName()));
+    }
+
+    @Test
+    void getRequestsOfUser() {
+        assertStatementCount(3, get("/requests").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void getRequestsOfOtherUsers() {
+        assertStatementCount(3, get("/requests/all").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void getRequest() {
+        assertStatementCount(3, get("/requests/{requestId}", request.getId()).header(USER_HEADER, owner.getId()));
+    }
+
+    // Первый вызов прогревает кэш пользователей, чтобы результат не зависел от порядка тестов
+    @SneakyThrows
+    private void assertStatementCount(int expected, RequestBuilder request) {
+        mockMvc.perform(request).andExpect(status().isOk());
+        String count = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(SqlStatisticsHeaderAdvice.STATEMENT_COUNT_HEADER);
+        assertEquals(String.valueOf(expected), count);
+    }
+
+    private Comment newComment(Item item, User author, LocalDateTime created) {
+        Comment comment = new Comment("Отличная вещь", author, created);
+        comment.setItem(item);
+        return comment;
+    }
+}
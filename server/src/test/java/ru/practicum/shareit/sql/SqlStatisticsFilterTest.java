@@ -0,0 +1,60 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql-statistics.statement-budget=0")
+@AutoConfigureMockMvc
+class SqlStatisticsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Получение пользователя по id - один SQL-запрос, он же превышает нулевой бюджет
+    @SneakyThrows
+    @Test
+    void getUser_whenRequestHandled_thenStatementCountInHeadersAndBudgetExceededCounted() {
+        User user = userRepository.save(new User("Name", "name@sql-statistics.ru"));
+
+        mockMvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatisticsHeaderAdvice.STATEMENT_COUNT_HEADER, "1"))
+                .andExpect(header().exists(SqlStatisticsHeaderAdvice.ELAPSED_TIME_HEADER));
+
+        Counter exceeded = meterRegistry.find("shareit.sql.budget.exceeded")
+                .tag("uri", "/users/{userId}")
+                .counter();
+        assertTrue(exceeded != null && exceeded.count() >= 1);
+        assertEquals(1L, (long) meterRegistry.find("shareit.sql.statements")
+                .tag("uri", "/users/{userId}")
+                .summary()
+                .max());
+    }
+
+    @Test
+    void record_whenStatisticsNotStarted_thenIgnored() {
+        SqlStatistics.record(1, 5);
+
+        assertEquals(null, SqlStatistics.current());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.sql;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Подсчет SQL-запросов, выполненных действием в текущем потоке, для тестов на число запросов
+public final class StatementCounter {
+    public static final int SMALL = 2;
+    public static final int BIG = 20;
+
+    private StatementCounter() {
+    }
+
+    // Результат действия вместе с числом выполненных им запросов
+    public static <T> Counted<T> count(Supplier<T> action) {
+        SqlStatistics.start();
+        SqlStatistics statistics;
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            statistics = SqlStatistics.stop();
+        }
+        return new Counted<>(result, statistics.getStatementCount());
+    }
+
+    public static long count(Runnable action) {
+        return count(() -> {
+            action.run();
+            return null;
+        }).getStatementCount();
+    }
+
+    // Одно и то же действие над малым (SMALL) и большим (BIG) набором данных выполняет одинаковое число запросов;
+    // fixture получает префикс для уникальных имен и размер набора, результаты возвращаются для проверок
+    public static <F, T> List<T> assertCountIndependentOfSize(BiFunction<String, Integer, F> fixture,
+                                                              Function<F, T> action) {
+        F small = fixture.apply("small", SMALL);
+        F big = fixture.apply("big", BIG);
+
+        Counted<T> smallResult = count(() -> action.apply(small));
+        Counted<T> bigResult = count(() -> action.apply(big));
+
+        assertEquals(smallResult.getStatementCount(), bigResult.getStatementCount(),
+                "Число SQL-запросов зависит от размера данных");
+        return List.of(smallResult.getResult(), bigResult.getResult());
+    }
+
+    public static final class Counted<T> {
+        private final T result;
+        private final long statementCount;
+
+        private Counted(T result, long statementCount) {
+            this.result = result;
+            this.statementCount = statementCount;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public long getStatementCount() {
+            return statementCount;
+        }
+    }
+}
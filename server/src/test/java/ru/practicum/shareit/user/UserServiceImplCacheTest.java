@@ -0,0 +1,94 @@
+package ru.practicum.shareit.user;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.impl.UserServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceImplCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getUserById_whenCalledTwice_thenSecondCallServedFromCache() {
+        User user = userService.createUser(new UserDto("Cached", "cached@user-cache.ru"));
+
+        User first = userService.getUserById(user.getId());
+        User second = userService.getUserById(user.getId());
+
+        assertSame(first, second);
+        assertNotNull(cacheManager.getCache(UserServiceImpl.USERS_CACHE).get(user.getId()));
+    }
+
+    @Test
+    void updateUser_whenUserCached_thenCacheEvicted() {
+        User user = userService.createUser(new UserDto("Before", "before@user-cache.ru"));
+        userService.getUserById(user.getId());
+
+        userService.updateUser(user.getId(), new UserDto("After", null));
+
+        assertNull(cacheManager.getCache(UserServiceImpl.USERS_CACHE).get(user.getId()));
+        assertEquals("After", userService.getUserById(user.getId()).getUserName());
+    }
+
+    @Test
+    void deleteUser_whenUserCached_thenCacheEvicted() {
+        User user = userService.createUser(new UserDto("Deleted", "deleted@user-cache.ru"));
+        userService.getUserById(user.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void checkUserExists_whenUserNotCached_thenOnlyExistenceQueryExecuted() {
+        User user = userService.createUser(new UserDto("Exists", "exists@user-cache.ru"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        userService.checkUserExists(user.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void checkUserExists_whenUserCached_thenNoQueryExecuted() {
+        User user = userService.createUser(new UserDto("CachedExists", "cached-exists@user-cache.ru"));
+        userService.getUserById(user.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        userService.checkUserExists(user.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void checkUserExists_whenUserNotExists_thenThrow() {
+        assertThrows(NotFoundException.class, () -> userService.checkUserExists(Long.MAX_VALUE));
+    }
+}
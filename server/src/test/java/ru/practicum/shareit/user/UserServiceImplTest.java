@@ -7,6 +7,9 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.http.HttpStatus;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -37,6 +40,9 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
 
@@ -83,6 +89,37 @@ class UserServiceImplTest {
                 () -> userService.getUserById(user.getId()));
     }
 
+    @Test
+    void checkUserExists_whenUserExists_thenEntityIsNotLoaded() {
+        Long userId = 1L;
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        userService.checkUserExists(userId);
+
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void checkUserExists_whenUserCached_thenRepositoryIsNotQueried() {
+        Long userId = 1L;
+        Cache users = new ConcurrentMapCache(UserServiceImpl.USERS_CACHE);
+        users.put(userId, new User());
+        when(cacheManager.getCache(UserServiceImpl.USERS_CACHE)).thenReturn(users);
+
+        userService.checkUserExists(userId);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkUserExists_whenUserNotFound_thenReturnThrow() {
+        Long userId = 1L;
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> userService.checkUserExists(userId));
+    }
+
     @Test
     void updateUser_whenUserUpdated_thenReturnUser() {
         Long userId = 0L;